@@ -0,0 +1,18 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.db;
+
+/**
+ * How a field of an enum type is stored
+ * @author Michael A. MacDonald
+ *
+ */
+public enum EnumStorage {
+	// Not an enum field
+	NONE,
+	// INTEGER holding the ordinal; compact, but renumbered if the constants are reordered
+	ORDINAL,
+	// TEXT holding the constant's name
+	NAME
+}
@@ -19,4 +19,29 @@ public @interface FieldAccessor {
 	public boolean Nullable() default true;
 	public String DefaultValue() default "";
 	public boolean Both() default true;
+	/** Create an index on this column, and generate finder methods for it */
+	public boolean Indexed() default false;
+	/** Create a unique index on this column, and generate finder methods for it */
+	public boolean Unique() default false;
+	/**
+	 * Make this column part of the table's primary key, for tables keyed on natural values
+	 * rather than _id
+	 */
+	public boolean PrimaryKey() default false;
+	/**
+	 * For an INTEGER_PRIMARY_KEY column, declare it AUTOINCREMENT.  Without AUTOINCREMENT the column
+	 * is a plain alias for the rowid, so an insert does not also read and write sqlite_sequence, but
+	 * the _id of the most recently inserted row may be reused after that row is deleted.
+	 */
+	public boolean Autoincrement() default true;
+	/**
+	 * Class that converts the field's value to and from the storage type given by Type; it must
+	 * implement the com.antlersoft.android.dbimpl converter interface for that type (LongConverter for
+	 * INTEGER, StringConverter for TEXT, DoubleConverter for REAL, BlobConverter for BLOB)
+	 */
+	public Class<?> Converter() default Void.class;
+	/**
+	 * For a field of an enum type, store it as its ordinal (INTEGER) or its name (TEXT)
+	 */
+	public EnumStorage EnumStorage() default EnumStorage.NONE;
 }
@@ -17,4 +17,36 @@ public @interface TableInterface {
 	public String ImplementingClassName() default "";
 	public boolean ImplementingIsAbstract() default true;
 	public boolean ImplementingIsPublic() default true;
+	/**
+	 * Indexes to create on the table; each is a comma-separated list of the fields (by column or
+	 * field name) in the index
+	 */
+	public String[] Indexes() default {};
+	/**
+	 * Unique indexes to create on the table; each is a comma-separated list of the fields (by column or
+	 * field name) in the index
+	 */
+	public String[] UniqueIndexes() default {};
+	/**
+	 * Create the table WITHOUT ROWID, so rows are stored in the primary key's b-tree; the
+	 * table must have a primary key, and an _id primary key is not AUTOINCREMENT
+	 */
+	public boolean WithoutRowid() default false;
+	/**
+	 * Create the table as a STRICT table, which enforces the declared column types.  STRICT
+	 * requires SQLite 3.37 or later, newer than the SQLite in many SQLCipher for Android builds;
+	 * older versions can't open a database that contains a STRICT table.  An object field without
+	 * a Converter is stored as its toString(), so in a STRICT table its column is TEXT.
+	 */
+	public boolean Strict() default false;
+	/**
+	 * Keep a bit mask of which nullable primitive fields are NULL, with Gen_isNull and Gen_setNull,
+	 * so nullable numeric columns don't need boxed fields; only for tables with at most 64 fields
+	 */
+	public boolean TrackNulls() default false;
+	/**
+	 * If not empty, also generate an immutable class with this name holding the values of a row,
+	 * populated straight from a cursor, for reads that only display data
+	 */
+	public String ValueClassName() default "";
 }
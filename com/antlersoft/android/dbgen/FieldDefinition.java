@@ -31,4 +31,16 @@ class FieldDefinition {
 	String getName;
 	boolean bothRequired;
 	FieldVisibility visibility;
+	boolean indexed;
+	boolean unique;
+	boolean primaryKey;
+	boolean autoincrement;
+	/**
+	 * Class name of the converter to and from the storage type, or null
+	 */
+	String converter;
+	/**
+	 * Arguments to the converter's constructor
+	 */
+	String converterArguments="";
 }
@@ -4,10 +4,12 @@
 package com.antlersoft.android.dbgen;
 
 import java.io.IOException;
+import java.text.MessageFormat;
 import java.util.ArrayList;
 
 import com.antlersoft.classwriter.*;
 
+import com.antlersoft.android.db.EnumStorage;
 import com.antlersoft.android.db.FieldType;
 import com.antlersoft.android.db.FieldVisibility;
 
@@ -19,6 +21,9 @@ public class SourceFileGenerator {
 	
 	private SourceInterface sourceBase;
 	
+	/** Type code of byte[], the only array type supported; stored as a BLOB */
+	static final String BYTE_ARRAY = "[B";
+	
 	static String[][] CODE_TO_JAVA_TYPE = {
 		{ TypeParse.ARG_BOOLEAN, "boolean" },
 		{ TypeParse.ARG_BYTE, "byte" },
@@ -27,9 +32,35 @@ public class SourceFileGenerator {
 		{ TypeParse.ARG_FLOAT, "float" },
 		{ TypeParse.ARG_INT, "int" },
 		{ TypeParse.ARG_LONG, "long" },
-		{ TypeParse.ARG_SHORT, "short" }
+		{ TypeParse.ARG_SHORT, "short" },
+		{ BYTE_ARRAY, "byte[]" }
+	};
+	
+	/** Boxed types stored as nullable numeric columns, with the primitive type each holds */
+	static String[][] BOXED_TYPES = {
+		{ "Ljava/lang/Boolean;", "boolean" },
+		{ "Ljava/lang/Byte;", "byte" },
+		{ "Ljava/lang/Short;", "short" },
+		{ "Ljava/lang/Integer;", "int" },
+		{ "Ljava/lang/Long;", "long" },
+		{ "Ljava/lang/Float;", "float" },
+		{ "Ljava/lang/Double;", "double" }
 	};
 	
+	/**
+	 * @param javaTypeCode
+	 * @return The primitive type boxed by the type with the given code, or null if it isn't a boxed type
+	 */
+	static String boxedPrimitive(String javaTypeCode)
+	{
+		for ( String[] pair : BOXED_TYPES)
+		{
+			if ( pair[0].equals(javaTypeCode))
+				return pair[1];
+		}
+		return null;
+	}
+	
 	public SourceFileGenerator( SourceInterface sourceBase)
 	{
 		this.sourceBase=sourceBase;
@@ -101,6 +132,12 @@ public class SourceFileGenerator {
 						java.io.PrintWriter pw=sourceBase.getWriterForClass(td.packageName, td.implementingClass);
 						td.generateClassDefinition(pw);
 						sourceBase.doneWithWriter(pw);
+						if ( td.valueClass.length()>0)
+						{
+							pw=sourceBase.getWriterForClass(td.packageName, td.valueClass);
+							td.generateValueClassDefinition(pw);
+							sourceBase.doneWithWriter(pw);
+						}
 						break;
 					}
 				}
@@ -119,6 +156,26 @@ public class SourceFileGenerator {
 		return defaultValue;
 	}
 	
+	/**
+	 * @return The strings in a string-array valued annotation element, or an empty list if
+	 * the element is not defined
+	 */
+	private ArrayList<String> getElementValueStrings( String name, ClassWriter cw, Annotation a)
+	{
+		ArrayList<String> result=new ArrayList<String>();
+		Object o=a.getElementValue(cw, name);
+		if ( o instanceof Annotation.ElementValue[])
+		{
+			for ( Annotation.ElementValue ev : (Annotation.ElementValue[])o)
+			{
+				Object v=ev.getObject(cw);
+				if ( v instanceof String)
+					result.add((String)v);
+			}
+		}
+		return result;
+	}
+	
 	private void readTableInterface(ClassWriter cw, Annotation a, TableDefinition td)
 	{
 		String internalName=cw.getInternalClassName(cw.getCurrentClassIndex());
@@ -134,6 +191,12 @@ public class SourceFileGenerator {
 		
 		td.makeAbstract=getElementValueBoolean( "ImplementingIsAbstract", cw, a, true);
 		td.makePublic=getElementValueBoolean( "ImplementingIsPublic", cw, a, true);
+		td.indexes=getElementValueStrings( "Indexes", cw, a);
+		td.uniqueIndexes=getElementValueStrings( "UniqueIndexes", cw, a);
+		td.withoutRowid=getElementValueBoolean( "WithoutRowid", cw, a, false);
+		td.strict=getElementValueBoolean( "Strict", cw, a, false);
+		td.trackNulls=getElementValueBoolean( "TrackNulls", cw, a, false);
+		td.valueClass=a.getElementValueAsString(cw, "ValueClassName");
 	}
 	
 	static enum MethodKind
@@ -181,7 +244,7 @@ public class SourceFileGenerator {
 		{
 			mk=MethodKind.PUT;
 			typeCode=sig.get(1);
-			if ( typeCode==TypeParse.ARG_OBJREF) {
+			if ( typeCode==TypeParse.ARG_OBJREF || typeCode==TypeParse.ARG_ARRAYREF) {
 				String t=mi.getType();
 				typeCode=t.substring(t.indexOf('(')+1,t.indexOf(')'));
 			}
@@ -190,15 +253,15 @@ public class SourceFileGenerator {
 		{
 			mk=MethodKind.GET;
 			typeCode=sig.get(0);
-			if ( typeCode==TypeParse.ARG_OBJREF) {
+			if ( typeCode==TypeParse.ARG_OBJREF || typeCode==TypeParse.ARG_ARRAYREF) {
 				String t=mi.getType();
 				typeCode=t.substring(t.indexOf(')')+1);
 			}
 		}
 		if ( typeCode==null)
 			return;
-		// We don't support array types
-		if ( typeCode.startsWith(TypeParse.ARG_ARRAYREF))
+		// The only array type we support is byte[]
+		if ( typeCode.startsWith("[") && ! typeCode.equals(BYTE_ARRAY))
 			return;
 			
 		if ( fieldName.startsWith("get") && nextIsCap( fieldName, 3))
@@ -240,6 +303,7 @@ public class SourceFileGenerator {
 		{
 			fd=new FieldDefinition();
 			fd.columnName=columnName;
+			fd.autoincrement=true;
 			td.fieldDefinitions.add(fd);
 		}
 		fd.name=fieldName;
@@ -248,7 +312,9 @@ public class SourceFileGenerator {
 		fd.bothRequired=getElementValueBoolean("Both",cw,a,true);
 		if (fd.javaTypeCode == null)
 			fd.javaTypeCode = typeCode;
-		String fieldTypeString = a.getElementValueAsString(cw, "Type");
+		// Enum values are returned by name by getElementValue, but not by getElementValueAsString
+		Object fieldTypeValue = a.getElementValue(cw, "Type");
+		String fieldTypeString = fieldTypeValue==null ? "" : fieldTypeValue.toString();
 		if ( fieldTypeString.length()==0)
 		{
 			if ( fd.type==null)
@@ -268,6 +334,35 @@ public class SourceFileGenerator {
 			fd.putRequired = true;
 			fd.putName = mi.getName();
 		}
+		Object converterValue = a.getElementValue(cw, "Converter");
+		if ( converterValue!=null && ! converterValue.equals("Ljava/lang/Void;"))
+		{
+			String converterCode = converterValue.toString();
+			fd.converter = TypeParse.convertFromInternalClassName(converterCode.substring(1, converterCode.length()-1));
+		}
+		Object enumStorage = a.getElementValue(cw, "EnumStorage");
+		if ( enumStorage!=null && ! enumStorage.equals(EnumStorage.NONE.toString()))
+		{
+			EnumStorage storage = EnumStorage.valueOf(enumStorage.toString());
+			String enumType = getJavaType(fd.javaTypeCode);
+			fd.converter = MessageFormat.format("com.antlersoft.android.dbimpl.{0}<{1}>",
+					storage==EnumStorage.ORDINAL ? "EnumOrdinalConverter" : "EnumNameConverter", enumType);
+			fd.converterArguments = enumType+".class";
+			if ( fd.type==FieldType.DEFAULT)
+				fd.type = storage==EnumStorage.ORDINAL ? FieldType.INTEGER : FieldType.TEXT;
+		}
+		if ( fd.converter!=null)
+		{
+			if ( ! fd.javaTypeCode.startsWith(TypeParse.ARG_OBJREF))
+				throw new SourceInterface.SIException("Converter on "+td.interfaceName+"."+mi.getName()+" requires an object type");
+			if ( fd.type==FieldType.DEFAULT || fd.type==FieldType.INTEGER_PRIMARY_KEY)
+				throw new SourceInterface.SIException("Converter on "+td.interfaceName+"."+mi.getName()+" requires a Type of INTEGER, TEXT, REAL or BLOB");
+		}
+		if ( fd.type==FieldType.DEFAULT && boxedPrimitive(fd.javaTypeCode)!=null)
+		{
+			String primitive = boxedPrimitive(fd.javaTypeCode);
+			fd.type = primitive.equals("float") || primitive.equals("double") ? FieldType.REAL : FieldType.INTEGER;
+		}
 		if ( fd.type==FieldType.DEFAULT)
 		{
 			if ( fd.javaTypeCode.equals("Ljava/lang/String;") || fd.javaTypeCode.equals(TypeParse.ARG_CHAR)) {
@@ -283,10 +378,20 @@ public class SourceFileGenerator {
 				if ( columnName.equals("_id"))
 					fd.type=FieldType.INTEGER_PRIMARY_KEY;
 			}
+			else if ( td.strict && ! fd.javaTypeCode.equals(BYTE_ARRAY))
+				// Other objects are stored as their toString(), which a STRICT BLOB column rejects
+				fd.type=FieldType.TEXT;
 			else
 				fd.type=FieldType.BLOB;
 		}
+		if ( td.strict && fd.converter==null && fd.type!=FieldType.TEXT && fd.javaTypeCode.startsWith(TypeParse.ARG_OBJREF) &&
+				! fd.javaTypeCode.equals("Ljava/lang/String;") && boxedPrimitive(fd.javaTypeCode)==null)
+			throw new SourceInterface.SIException(td.interfaceName+"."+mi.getName()+" is stored as a string, so in a STRICT table it needs Type TEXT or a Converter");
 		fd.nullable=getElementValueBoolean("Nullable", cw, a, true);
+		fd.indexed=fd.indexed || getElementValueBoolean("Indexed", cw, a, false);
+		fd.unique=fd.unique || getElementValueBoolean("Unique", cw, a, false);
+		fd.primaryKey=fd.primaryKey || getElementValueBoolean("PrimaryKey", cw, a, false);
+		fd.autoincrement=fd.autoincrement && getElementValueBoolean("Autoincrement", cw, a, true);
 		fd.defaultValue=null;
 		if (a.getElementValue(cw, "DefaultValue")!=null)
 		{
@@ -6,6 +6,7 @@ package com.antlersoft.android.dbgen;
 import java.io.PrintWriter;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.List;
 
 import com.antlersoft.android.db.FieldType;
 import com.antlersoft.android.db.FieldVisibility;
@@ -26,11 +27,21 @@ class TableDefinition {
 	boolean makePublic;
 	
 	ArrayList<FieldDefinition> fieldDefinitions;
+	/** Comma-separated field lists of the indexes declared on the table */
+	ArrayList<String> indexes;
+	ArrayList<String> uniqueIndexes;
+	boolean withoutRowid;
+	boolean strict;
+	boolean trackNulls;
+	/** Name of the immutable value class to generate, or empty for none */
+	String valueClass="";
 	
 	TableDefinition(String name)
 	{
 		this.name=name;
 		fieldDefinitions=new ArrayList<FieldDefinition>();
+		indexes=new ArrayList<String>();
+		uniqueIndexes=new ArrayList<String>();
 	}
 	
 	TableDefinition()
@@ -135,6 +146,372 @@ class TableDefinition {
 		return false;
 	}
 	
+	/**
+	 * @return The fields declared with PrimaryKey, which make up a natural primary key
+	 */
+	private ArrayList<FieldDefinition> primaryKeyFields()
+	{
+		ArrayList<FieldDefinition> result=new ArrayList<FieldDefinition>();
+		for (FieldDefinition fd : fieldDefinitions)
+		{
+			if (fd.primaryKey)
+				result.add(fd);
+		}
+		return result;
+	}
+	
+	/**
+	 * @param fd
+	 * @return True if the field is the whole of a natural primary key, so it is already indexed
+	 */
+	private boolean isSoleKey(FieldDefinition fd)
+	{
+		return fd.primaryKey && primaryKeyFields().size()==1;
+	}
+	
+	/**
+	 * Changed fields are tracked in a bit mask of the GEN_ID_ values, so only for tables with
+	 * at most 64 fields
+	 * @return True if the generated class tracks which fields have changed
+	 */
+	private boolean tracksDirty()
+	{
+		return hasId() && fieldDefinitions.size()<=64;
+	}
+	
+	/**
+	 * @return The fields written by the generated INSERT and UPDATE statements; all but _id
+	 */
+	private ArrayList<FieldDefinition> boundFields()
+	{
+		ArrayList<FieldDefinition> result=new ArrayList<FieldDefinition>();
+		for (FieldDefinition fd : fieldDefinitions)
+		{
+			if (! fd.columnName.equals("_id"))
+				result.add(fd);
+		}
+		return result;
+	}
+	
+	/**
+	 * Return the statement that binds the value of a field to a compiled SQLiteStatement
+	 * named statement, using the SQLite type that corresponds to the Java type
+	 * @param fd Field to bind
+	 * @param index Java expression for the 1-based parameter index
+	 * @return Java statement
+	 */
+	private String bindStatement(FieldDefinition fd, String index)
+	{
+		if (tracksNull(fd))
+		{
+			return MessageFormat.format("if ((Gen_nulls & (1L << {0})) != 0) statement.bindNull({1}); else {2}",
+					idSymbol(fd), index, bindStatement(fd, "gen_"+fd.name, index));
+		}
+		return bindStatement(fd, "gen_"+fd.name, index);
+	}
+	
+	/**
+	 * Return the statement that binds a value of the field's type to a compiled SQLiteStatement
+	 * named statement
+	 * @param fd Field whose type the value has
+	 * @param value Java expression for the value
+	 * @param index Java expression for the 1-based parameter index
+	 * @return Java statement
+	 */
+	private static String bindStatement(FieldDefinition fd, String value, String index)
+	{
+		String bind=bindValue(fd, value, index);
+		if ( isReference(fd))
+			return MessageFormat.format("if ({0} == null) statement.bindNull({1}); else {2}", value, index, bind);
+		return bind;
+	}
+	
+	/**
+	 * Return the statement that binds a value of the field's type that is known not to be null
+	 * to a compiled SQLiteStatement named statement
+	 * @param fd Field whose type the value has
+	 * @param value Java expression for the value
+	 * @param index Java expression for the 1-based parameter index
+	 * @return Java statement
+	 */
+	private static String bindValue(FieldDefinition fd, String value, String index)
+	{
+		if ( fd.converter != null)
+		{
+			String[] storage=converterStorage(fd);
+			return MessageFormat.format("statement.{2}({1}, {3}.to{4}({0}));",
+					value, index, storage[2], converterSymbol(fd), storage[0]);
+		}
+		if ( fd.javaTypeCode.equals(SourceFileGenerator.BYTE_ARRAY))
+			return MessageFormat.format("statement.bindBlob({1}, {0});", value, index);
+		String boxed=SourceFileGenerator.boxedPrimitive(fd.javaTypeCode);
+		if ( boxed != null)
+		{
+			if ( boxed.equals("boolean"))
+				return MessageFormat.format("statement.bindLong({0}, {1} ? 1 : 0);", index, value);
+			if ( boxed.equals("float") || boxed.equals("double"))
+				return MessageFormat.format("statement.bindDouble({0}, {1});", index, value);
+			return MessageFormat.format("statement.bindLong({0}, {1});", index, value);
+		}
+		if ( fd.javaTypeCode.startsWith(TypeParse.ARG_OBJREF))
+		{
+			return MessageFormat.format("statement.bindString({0}, {1});",
+					index, fd.javaTypeCode.equals("Ljava/lang/String;") ? value : value + ".toString()");
+		}
+		if ( fd.javaTypeCode.equals(TypeParse.ARG_BOOLEAN))
+			return MessageFormat.format("statement.bindLong({0}, {1} ? 1 : 0);", index, value);
+		if ( fd.javaTypeCode.equals(TypeParse.ARG_CHAR))
+			return MessageFormat.format("statement.bindString({0}, String.valueOf({1}));", index, value);
+		if ( fd.javaTypeCode.equals(TypeParse.ARG_DOUBLE) || fd.javaTypeCode.equals(TypeParse.ARG_FLOAT))
+			return MessageFormat.format("statement.bindDouble({0}, {1});", index, value);
+		return MessageFormat.format("statement.bindLong({0}, {1});", index, value);
+	}
+	
+	/**
+	 * Find the field named in an index declaration
+	 * @param fieldName Column name or Java name of the field
+	 * @return The field definition
+	 * @throws SourceInterface.SIException If there is no such field
+	 */
+	private FieldDefinition findField(String fieldName)
+	throws SourceInterface.SIException
+	{
+		for (FieldDefinition fd : fieldDefinitions)
+		{
+			if (fd.columnName.equalsIgnoreCase(fieldName) || fd.name.equals(fieldName))
+				return fd;
+		}
+		throw new SourceInterface.SIException("Index on "+interfaceName+" refers to unknown field "+fieldName);
+	}
+	
+	private String createIndexSql(boolean unique, List<FieldDefinition> fields)
+	{
+		StringBuilder indexName=new StringBuilder(name.toUpperCase());
+		StringBuilder columns=new StringBuilder();
+		for (FieldDefinition fd : fields)
+		{
+			indexName.append('_').append(fd.columnName.toUpperCase());
+			if (columns.length()>0)
+				columns.append(',');
+			columns.append(fd.columnName);
+		}
+		return MessageFormat.format("CREATE {0}INDEX IF NOT EXISTS {1}_IDX ON {2} ({3})",
+				unique ? "UNIQUE " : "", indexName, name.toUpperCase(), columns);
+	}
+	
+	private void addIndexStatements(ArrayList<String> result, boolean unique, List<String> declarations)
+	throws SourceInterface.SIException
+	{
+		for (String declaration : declarations)
+		{
+			ArrayList<FieldDefinition> fields=new ArrayList<FieldDefinition>();
+			for (String fieldName : declaration.split(","))
+			{
+				if (fieldName.trim().length()>0)
+					fields.add(findField(fieldName.trim()));
+			}
+			if (fields.size()>0)
+				result.add(createIndexSql(unique, fields));
+		}
+	}
+	
+	/**
+	 * @return SQL statements that create the indexes declared on the table and its fields
+	 * @throws SourceInterface.SIException If an index refers to an unknown field
+	 */
+	private ArrayList<String> indexStatements()
+	throws SourceInterface.SIException
+	{
+		ArrayList<String> result=new ArrayList<String>();
+		for (FieldDefinition fd : fieldDefinitions)
+		{
+			if ((fd.unique || fd.indexed) && ! isSoleKey(fd))
+			{
+				ArrayList<FieldDefinition> fields=new ArrayList<FieldDefinition>();
+				fields.add(fd);
+				result.add(createIndexSql(fd.unique, fields));
+			}
+		}
+		addIndexStatements(result, false, indexes);
+		addIndexStatements(result, true, uniqueIndexes);
+		return result;
+	}
+	
+	private static String finderName(FieldDefinition fd, String prefix)
+	{
+		return prefix+fd.name.substring(0,1).toUpperCase()+fd.name.substring(1);
+	}
+	
+	private static String converterSymbol(FieldDefinition fd)
+	{
+		return "GEN_CONVERTER_"+fd.columnName.toUpperCase();
+	}
+	
+	/**
+	 * Names for the storage type of a field with a converter
+	 * @return Suffix of the converter methods, Cursor getter, SQLiteStatement bind method,
+	 * ContentValues getter, and the class the stored value is boxed in (null if it isn't)
+	 */
+	private static String[] converterStorage(FieldDefinition fd)
+	{
+		switch (fd.type)
+		{
+		case INTEGER :
+			return new String[] { "Long", "getLong", "bindLong", "getAsLong", "Long" };
+		case REAL :
+			return new String[] { "Double", "getDouble", "bindDouble", "getAsDouble", "Double" };
+		case BLOB :
+			return new String[] { "Bytes", "getBlob", "bindBlob", "getAsByteArray", null };
+		default :
+			return new String[] { "Text", "getString", "bindString", "getAsString", null };
+		}
+	}
+	
+	/**
+	 * @return Java expression for the stored value of a non-null variable of a field with a converter,
+	 * boxed if it is a number
+	 */
+	private static String convertedValue(FieldDefinition fd, String variable)
+	{
+		String[] storage=converterStorage(fd);
+		String converted=MessageFormat.format("{0}.to{1}({2})", converterSymbol(fd), storage[0], variable);
+		return storage[4]==null ? converted : storage[4]+".valueOf("+converted+")";
+	}
+	
+	/**
+	 * @param fd Field to read
+	 * @param columnIndex Java expression for the column index in a cursor named cursor
+	 * @return Java expression for the value of the field in the column, which is not NULL; null if
+	 * the field can't be read from a cursor
+	 */
+	private static String cursorValue(FieldDefinition fd, String columnIndex)
+	{
+		if (fd.converter != null)
+		{
+			String[] storage=converterStorage(fd);
+			return MessageFormat.format("{0}.from{1}(cursor.{2}({3}))", converterSymbol(fd), storage[0], storage[1], columnIndex);
+		}
+		String boxed=SourceFileGenerator.boxedPrimitive(fd.javaTypeCode);
+		if (boxed != null)
+			return boxedCursorValue(boxed, columnIndex);
+		switch (fd.type){
+		case INTEGER :
+		case INTEGER_PRIMARY_KEY :
+			if (fd.javaType.equals("boolean"))
+				return MessageFormat.format("(cursor.getInt({0}) != 0)", columnIndex);
+			if (fd.javaType.equals("long"))
+				return MessageFormat.format("cursor.getLong({0})", columnIndex);
+			return MessageFormat.format("({0})cursor.getInt({1})", fd.javaType, columnIndex);
+		case REAL :
+			if (fd.javaType.equals("float"))
+				return MessageFormat.format("cursor.getFloat({0})", columnIndex);
+			return MessageFormat.format("cursor.getDouble({0})", columnIndex);
+		case TEXT :
+			if (fd.javaType.equals("char"))
+				return MessageFormat.format("cursor.getString({0}).charAt(0)", columnIndex);
+			return MessageFormat.format("cursor.getString({0})", columnIndex);
+		case BLOB :
+			if (fd.javaTypeCode.equals(SourceFileGenerator.BYTE_ARRAY))
+				return MessageFormat.format("cursor.getBlob({0})", columnIndex);
+		}
+		return null;
+	}
+	
+	/**
+	 * @param boxed Primitive type of a boxed field
+	 * @param columnIndex Java expression for the column index in a cursor named cursor
+	 * @return Java expression for the boxed value of the column, which is not NULL
+	 */
+	private static String boxedCursorValue(String boxed, String columnIndex)
+	{
+		if (boxed.equals("boolean"))
+			return MessageFormat.format("Boolean.valueOf(cursor.getInt({0}) != 0)", columnIndex);
+		if (boxed.equals("byte"))
+			return MessageFormat.format("Byte.valueOf((byte)cursor.getInt({0}))", columnIndex);
+		if (boxed.equals("short"))
+			return MessageFormat.format("Short.valueOf(cursor.getShort({0}))", columnIndex);
+		if (boxed.equals("int"))
+			return MessageFormat.format("Integer.valueOf(cursor.getInt({0}))", columnIndex);
+		if (boxed.equals("long"))
+			return MessageFormat.format("Long.valueOf(cursor.getLong({0}))", columnIndex);
+		if (boxed.equals("float"))
+			return MessageFormat.format("Float.valueOf(cursor.getFloat({0}))", columnIndex);
+		return MessageFormat.format("Double.valueOf(cursor.getDouble({0}))", columnIndex);
+	}
+	
+	/**
+	 * @return True if the table keeps a bit in Gen_nulls for whether the field, which has a primitive
+	 * type, is NULL
+	 */
+	private boolean tracksNull(FieldDefinition fd)
+	{
+		return trackNulls && fd.nullable && fd.converter == null && ! fd.columnName.equals("_id") &&
+			! fd.javaTypeCode.startsWith(TypeParse.ARG_OBJREF) && ! fd.javaTypeCode.startsWith("[");
+	}
+	
+	/**
+	 * @return True if the field's Java type is a reference type, so its value may be null
+	 */
+	private static boolean isReference(FieldDefinition fd)
+	{
+		return fd.javaTypeCode.startsWith(TypeParse.ARG_OBJREF) || fd.javaTypeCode.equals(SourceFileGenerator.BYTE_ARRAY);
+	}
+	
+	/**
+	 * @return Name of the NumericColumns constant for the kind of primitive array the field can be
+	 * read into
+	 */
+	private static String numericKind(FieldDefinition fd)
+	{
+		String primitive;
+		if (fd.converter != null)
+			primitive=fd.type == FieldType.INTEGER ? "long" : (fd.type == FieldType.REAL ? "double" : null);
+		else
+		{
+			primitive=SourceFileGenerator.boxedPrimitive(fd.javaTypeCode);
+			if (primitive == null)
+				primitive=fd.javaType;
+			if (fd.type != FieldType.INTEGER && fd.type != FieldType.INTEGER_PRIMARY_KEY && fd.type != FieldType.REAL)
+				primitive=null;
+		}
+		if (primitive == null)
+			return "NOT_NUMERIC";
+		if (primitive.equals("long"))
+			return "LONG";
+		if (primitive.equals("float") || primitive.equals("double"))
+			return "DOUBLE";
+		if (primitive.equals("int") || primitive.equals("short") || primitive.equals("byte") || primitive.equals("boolean"))
+			return "INT";
+		return "NOT_NUMERIC";
+	}
+	
+	private static String finderSymbol(FieldDefinition fd)
+	{
+		return "GEN_FIND_BY_"+fd.columnName.toUpperCase();
+	}
+	
+	/**
+	 * Return a Java expression for the value of a variable as a query argument, boxed in the type
+	 * that binds it with the SQLite type of the field
+	 */
+	private static String argumentValue(FieldDefinition fd, String variable)
+	{
+		if ( fd.converter != null)
+			return convertedValue(fd, variable);
+		String boxed=SourceFileGenerator.boxedPrimitive(fd.javaTypeCode);
+		if ( boxed != null)
+			return boxed.equals("boolean") ? MessageFormat.format("Integer.valueOf({0} ? 1 : 0)", variable) : variable;
+		if ( fd.javaTypeCode.equals("Ljava/lang/String;") || fd.javaTypeCode.equals(SourceFileGenerator.BYTE_ARRAY))
+			return variable;
+		if ( fd.javaTypeCode.startsWith(TypeParse.ARG_OBJREF))
+			return variable+".toString()";
+		if ( fd.javaTypeCode.equals(TypeParse.ARG_BOOLEAN))
+			return MessageFormat.format("Integer.valueOf({0} ? 1 : 0)", variable);
+		if ( fd.javaTypeCode.equals(TypeParse.ARG_CHAR))
+			return MessageFormat.format("String.valueOf({0})", variable);
+		return MessageFormat.format("{0}.valueOf({1})", getObjectType(fd), variable);
+	}
+	
 	/**
 	 * Escape a string so it can appear within Oracle single quotes
 	 * @param f string to escape
@@ -186,6 +563,22 @@ class TableDefinition {
 		return b.toString();
 	}
 
+	/**
+	 * 64-bit FNV-1a hash of the schema definition, used as its version
+	 * @param schema
+	 * @return
+	 */
+	private static long fingerprint(String schema)
+	{
+		long hash=0xcbf29ce484222325L;
+		for (int i=0; i<schema.length(); i++)
+		{
+			hash^=schema.charAt(i);
+			hash*=0x100000001b3L;
+		}
+		return hash;
+	}
+	
 	/**
 	 * Return a string representing the default value of the field if one was provided
 	 * @param fd
@@ -208,13 +601,23 @@ class TableDefinition {
 			    result.append('\'');
 			    break;
 			case INTEGER :
-				if (fd.javaType.equals("boolean"))
+				if (fd.javaType.equals("boolean") || fd.javaType.equals("java.lang.Boolean"))
 				{
 					result.append(" DEFAULT ");
 					result.append(fd.defaultValue.equals("true") ? 1 : 0);
 					break;
 				}
-				// Intentionally fall through for non-boolean case
+				try
+				{
+					long v = Long.parseLong(fd.defaultValue.trim());
+					result.append(" DEFAULT ");
+					result.append(v);
+				}
+				catch (NumberFormatException nfe)
+				{
+					throw new SourceInterface.SIException(fd.defaultValue + " could not be interpreted as an integer");
+				}
+				break;
 			case REAL :
 				try
 				{
@@ -226,6 +629,7 @@ class TableDefinition {
 				{
 					throw new SourceInterface.SIException(fd.defaultValue + " could not be interpreted as a number");
 				}
+				break;
 			default :
 				throw new SourceInterface.SIException("Inappropriate field type for getting default value "+fd.type.toString());
 			}
@@ -256,16 +660,45 @@ class TableDefinition {
 			id.ivprintln(MessageFormat.format("static final String {0} = \"{1}\";", nameSymbol(fd), fd.columnName));
 			id.ivprintln(MessageFormat.format("static final int {0} = {1};", idSymbol(fd), i));
 		}
+		// The arrays are private so callers can't change the SQL built from them; the Gen_ methods
+		// below return copies
+		id.iprintln("private static final String[] GEN_COLUMNS = {");
+		for ( int i=0; i<fieldDefinitions.size(); i++)
+		{
+			id.iprintln(MessageFormat.format("{0}{1}", nameSymbol(fieldDefinitions.get(i)), i == fieldDefinitions.size()-1 ? "" : ","));
+		}
+		id.closeBrace();
+		id.iprintln(";");
+		id.nl();
+		id.iprintln("// Kind of primitive array each column can be read into by Gen_readNumeric");
+		id.iprintln("private static final int[] GEN_NUMERIC_KINDS = {");
+		for ( int i=0; i<fieldDefinitions.size(); i++)
+		{
+			id.iprintln(MessageFormat.format("com.antlersoft.android.dbimpl.NumericColumns.{0}{1}", numericKind(fieldDefinitions.get(i)), i == fieldDefinitions.size()-1 ? "" : ","));
+		}
+		id.closeBrace();
+		id.iprintln(";");
 		id.nl();
 		
 		// String for creating the table
 		id.iprintln("// SQL Command for creating the table");
-		id.ivprintln(MessageFormat.format("static String GEN_CREATE = \"CREATE TABLE {0} (\" +", name.toUpperCase()));
-		for (int i = 0; i < fieldDefinitions.size(); ++i) {
-			FieldDefinition fd = fieldDefinitions.get(i);
+		ArrayList<FieldDefinition> keyFields=primaryKeyFields();
+		boolean hasIntegerKey=false;
+		for (FieldDefinition fd : fieldDefinitions)
+		{
+			if (fd.type == FieldType.INTEGER_PRIMARY_KEY)
+				hasIntegerKey=true;
+		}
+		if (hasIntegerKey && keyFields.size()>0)
+			throw new SourceInterface.SIException(interfaceName+" declares PrimaryKey fields as well as an INTEGER PRIMARY KEY");
+		if (withoutRowid && ! hasIntegerKey && keyFields.size()==0)
+			throw new SourceInterface.SIException(interfaceName+" is WITHOUT ROWID but has no primary key");
+		ArrayList<String> definitions=new ArrayList<String>();
+		for (FieldDefinition fd : fieldDefinitions) {
 			String type = fd.type.toString();
 			if (fd.type == FieldType.INTEGER_PRIMARY_KEY) {
-				type = "INTEGER PRIMARY KEY AUTOINCREMENT";
+				// AUTOINCREMENT is not allowed in a WITHOUT ROWID table, which has no rowid to assign
+				type = withoutRowid || ! fd.autoincrement ? "INTEGER PRIMARY KEY" : "INTEGER PRIMARY KEY AUTOINCREMENT";
 			} else {
 				if (! fd.nullable)
 				{
@@ -273,9 +706,144 @@ class TableDefinition {
 				}
 				type = type + defaultValueString(fd);
 			}
-			id.iprintln(MessageFormat.format("\"{0} {1}{2}\" +", fd.columnName, type, i == fieldDefinitions.size()-1 ? "" : ","));
+			definitions.add(fd.columnName+" "+type);
+		}
+		StringBuilder schema=new StringBuilder();
+		id.ivprintln(MessageFormat.format("static String GEN_CREATE = \"CREATE TABLE {0} (\" +", name.toUpperCase()));
+		for (int i = 0; i < definitions.size(); ++i) {
+			schema.append(definitions.get(i)).append(',');
+			id.iprintln(MessageFormat.format("\"{0}{1}\" +", definitions.get(i), i == definitions.size()-1 && keyFields.size()==0 ? "" : ","));
+		}
+		if (keyFields.size()>0)
+		{
+			StringBuilder key=new StringBuilder();
+			for (FieldDefinition fd : keyFields)
+			{
+				if (key.length()>0)
+					key.append(',');
+				key.append(fd.columnName);
+			}
+			id.iprintln(MessageFormat.format("\"PRIMARY KEY ({0})\" +", key));
+			schema.append("PRIMARY KEY (").append(key).append(')');
+		}
+		StringBuilder options=new StringBuilder();
+		if (withoutRowid)
+			options.append(" WITHOUT ROWID");
+		if (strict)
+			options.append(options.length()>0 ? ", STRICT" : " STRICT");
+		id.iprintln(MessageFormat.format("\"){0}\";", options));
+		schema.append(')').append(options);
+		id.nl();
+		id.iprintln("// Definitions of each column, as in GEN_CREATE, for adding columns to an existing table");
+		id.iprintln("private static final String[] GEN_COLUMN_DEFINITIONS = {");
+		for (int i=0; i<definitions.size(); i++)
+		{
+			id.iprintln(MessageFormat.format("\"{0}\"{1}", definitions.get(i), i == definitions.size()-1 ? "" : ","));
+		}
+		id.closeBrace();
+		id.iprintln(";");
+		
+		id.nl();
+		id.iprintln("// SQL Commands for creating the indexes on the table");
+		id.iprintln("private static final String[] GEN_CREATE_INDEXES = {");
+		ArrayList<String> indexSql=indexStatements();
+		for (int i=0; i<indexSql.size(); i++)
+		{
+			schema.append(';').append(indexSql.get(i));
+			id.iprintln(MessageFormat.format("\"{0}\"{1}", indexSql.get(i), i == indexSql.size()-1 ? "" : ","));
+		}
+		id.closeBrace();
+		id.iprintln(";");
+		id.nl();
+		id.iprintln("// Fingerprint of the table and index definitions, recorded by SchemaMigrator");
+		id.ivprintln(MessageFormat.format("static final long GEN_SCHEMA_VERSION = {0}L;", Long.toString(fingerprint(schema.toString()))));
+		id.nl();
+		id.iprintln("/**");
+		id.iprintln(" * Create the table and its indexes, or add the columns and indexes it is missing, unless");
+		id.iprintln(" * it has already been migrated to GEN_SCHEMA_VERSION");
+		id.iprintln(" * @return true if the table was created or changed");
+		id.iprintln(" */");
+		id.iprintln("public static boolean Gen_migrate(net.sqlcipher.database.SQLiteDatabase db) {");
+		id.iprintln(MessageFormat.format("return com.antlersoft.android.dbimpl.SchemaMigrator.migrate(db, {0}, GEN_CREATE, GEN_COLUMN_DEFINITIONS, GEN_CREATE_INDEXES, GEN_SCHEMA_VERSION);",
+				TABLE_NAME_SYMBOL));
+		id.closeBrace();
+		id.nl();
+		id.iprintln("/**");
+		id.iprintln(" * @return Copy of the names of the columns, indexed by the GEN_ID_ constants");
+		id.iprintln(" */");
+		id.iprintln("public static String[] Gen_columns() { return GEN_COLUMNS.clone(); }");
+		id.nl();
+		id.iprintln("/**");
+		id.iprintln(" * @return Copy of the definition of each column, as in GEN_CREATE");
+		id.iprintln(" */");
+		id.iprintln("public static String[] Gen_columnDefinitions() { return GEN_COLUMN_DEFINITIONS.clone(); }");
+		id.nl();
+		id.iprintln("/**");
+		id.iprintln(" * @return Copy of the SQL commands that create the indexes on the table");
+		id.iprintln(" */");
+		id.iprintln("public static String[] Gen_createIndexes() { return GEN_CREATE_INDEXES.clone(); }");
+		id.nl();
+		id.iprintln("/**");
+		id.iprintln(" * Read numeric fields of the selected rows into primitive arrays, in one pass with no");
+		id.iprintln(" * objects allocated per row");
+		id.iprintln(" * @param fieldIds GEN_ID_ constants of the fields; column i of the result is fieldIds[i]");
+		id.iprintln(" */");
+		id.iprintln("public static com.antlersoft.android.dbimpl.NumericColumns Gen_readNumeric(net.sqlcipher.database.SQLiteDatabase db, String selection, String[] selectionArgs, int... fieldIds) {");
+		id.iprintln(MessageFormat.format("return com.antlersoft.android.dbimpl.NumericColumns.read(db, {0}, GEN_COLUMNS, GEN_NUMERIC_KINDS, selection, selectionArgs, fieldIds);",
+				TABLE_NAME_SYMBOL));
+		id.closeBrace();
+		
+		if (hasId())
+		{
+			ArrayList<FieldDefinition> bound=boundFields();
+			StringBuilder columns=new StringBuilder();
+			StringBuilder parameters=new StringBuilder();
+			StringBuilder assignments=new StringBuilder();
+			for (FieldDefinition fd : bound)
+			{
+				if (columns.length()>0)
+				{
+					columns.append(',');
+					parameters.append(',');
+					assignments.append(',');
+				}
+				columns.append(fd.columnName);
+				parameters.append('?');
+				assignments.append(fd.columnName).append("=?");
+			}
+			id.nl();
+			id.iprintln("// SQL for the compiled statements used to write a row");
+			if (withoutRowid)
+			{
+				// No rowid to assign, so the insert is given the _id, bound last as for GEN_UPDATE
+				id.ivprintln(MessageFormat.format("static final String GEN_INSERT = \"INSERT INTO {0} ({1}_id) VALUES ({2}?)\";",
+						name.toUpperCase(), bound.size()==0 ? "" : columns+",", bound.size()==0 ? "" : parameters+","));
+				if (bound.size()==0)
+					assignments.append("_id=_id");
+			}
+			else if (bound.size()==0)
+			{
+				id.ivprintln(MessageFormat.format("static final String GEN_INSERT = \"INSERT INTO {0} DEFAULT VALUES\";", name.toUpperCase()));
+				assignments.append("_id=_id");
+			}
+			else
+			{
+				id.ivprintln(MessageFormat.format("static final String GEN_INSERT = \"INSERT INTO {0} ({1}) VALUES ({2})\";", name.toUpperCase(), columns, parameters));
+			}
+			id.ivprintln(MessageFormat.format("static final String GEN_UPDATE = \"UPDATE {0} SET {1} WHERE _id = ?\";", name.toUpperCase(), assignments));
+			id.ivprintln(MessageFormat.format("static final String GEN_DELETE = \"DELETE FROM {0} WHERE _id = ?\";", name.toUpperCase()));
+			StringBuilder excluded=new StringBuilder();
+			for (FieldDefinition fd : bound)
+			{
+				if (excluded.length()>0)
+					excluded.append(',');
+				excluded.append(fd.columnName).append("=excluded.").append(fd.columnName);
+			}
+			// _id is bound last, after Gen_bindValues, as it is for GEN_UPDATE
+			id.ivprintln(MessageFormat.format("static final String GEN_UPSERT = \"INSERT INTO {0} ({1}_id) VALUES ({2}?) ON CONFLICT(_id) DO {3}\";",
+					name.toUpperCase(), bound.size()==0 ? "" : columns+",", bound.size()==0 ? "" : parameters+",",
+					bound.size()==0 ? "NOTHING" : "UPDATE SET "+excluded));
 		}
-		id.iprintln("\")\";");
 		
 		id.nl();
 		id.iprintln("// Members corresponding to defined fields");
@@ -290,6 +858,40 @@ class TableDefinition {
 			}
 			pw.print( MessageFormat.format("{0} gen_{1};", fd.javaType, fd.name));
 		}
+		for ( FieldDefinition fd : fieldDefinitions)
+		{
+			if ( fd.converter != null)
+			{
+				id.nl();
+				id.iprintln(MessageFormat.format("private static final {0} {1} = new {0}({2});", fd.converter, converterSymbol(fd), fd.converterArguments));
+			}
+		}
+		if (tracksDirty())
+		{
+			id.nl();
+			id.iprintln("/** Bit (1L << GEN_ID_) set for each field changed by a setter since the row was last read or written */");
+			id.iprintln("private long Gen_dirty;");
+		}
+		if (trackNulls)
+		{
+			if (fieldDefinitions.size()>64)
+				throw new SourceInterface.SIException(interfaceName+" has more than 64 fields, too many for TrackNulls");
+			id.nl();
+			id.iprintln("/** Bit (1L << GEN_ID_) set for each nullable primitive field that is NULL */");
+			id.iprintln("private long Gen_nulls;");
+			id.nl();
+			id.iprintln("/**");
+			id.iprintln(" * @param fieldId GEN_ID_ constant of a nullable field with a primitive type");
+			id.iprintln(" * @return true if the field is NULL; its value is then meaningless");
+			id.iprintln(" */");
+			id.iprintln("public boolean Gen_isNull(int fieldId) { return (Gen_nulls & (1L << fieldId)) != 0; }");
+			id.iprintln("/**");
+			id.iprintln(" * Make a nullable field with a primitive type NULL; calling its setter makes it non-NULL again");
+			id.iprintln(" * @param fieldId GEN_ID_ constant of the field");
+			id.iprintln(" */");
+			id.iprintln(MessageFormat.format("public void Gen_setNull(int fieldId) '{' Gen_nulls |= 1L << fieldId;{0} '}'",
+					tracksDirty() ? " Gen_dirty |= 1L << fieldId;" : ""));
+		}
 		
 		if (! makeAbstract) {
 			id.nl();
@@ -301,9 +903,124 @@ class TableDefinition {
 			id.iprintln(";");
 		}
 		
+		if (hasId()) {
+			id.nl();
+			id.ivprintln("static final com.antlersoft.android.dbimpl.StatementCache GEN_STATEMENTS = new com.antlersoft.android.dbimpl.StatementCache(GEN_INSERT, GEN_UPDATE, GEN_DELETE, GEN_UPSERT);");
+			id.iprintln("/** Cache of rows read with Gen_readCached; disabled until given a capacity with setCapacity */");
+			id.ivprintln(MessageFormat.format("static final com.antlersoft.android.dbimpl.EntityCache<{0}> GEN_ENTITY_CACHE = new com.antlersoft.android.dbimpl.EntityCache<{0}>(0);", implementingClass));
+		}
+		
+		id.nl();
+		id.ivprintln("static final com.antlersoft.android.dbimpl.ColumnIndicesCache GEN_COLUMN_INDICES_CACHE = new com.antlersoft.android.dbimpl.ColumnIndicesCache();");
+		id.iprintln("/** Maps cursor rows onto instances; shared by all threads */");
+		id.ivprintln(MessageFormat.format("static final com.antlersoft.android.dbimpl.RowMapper<{0}> GEN_ROW_MAPPER = new com.antlersoft.android.dbimpl.RowMapper<{0}>(GEN_COLUMN_INDICES_CACHE) '{'", implementingClass));
+		id.iprintln("public int[] computeColumnIndices(android.database.Cursor cursor) {");
+		id.iprintln("return Gen_computeColumnIndices(cursor);");
+		id.closeBrace();
+		id.closeBrace();
+		id.iprintln(";");
+		
 		id.nl();
 		id.iprintln(MessageFormat.format("public String Gen_tableName() '{' return {0}; }",TABLE_NAME_SYMBOL));
 		
+		if (hasId() && ! makeAbstract)
+		{
+			id.nl();
+			id.iprintln("/**");
+			id.iprintln(" * Read the rows with the given ids, using one query per chunk of ids");
+			id.iprintln(" * @param inInputOrder If true, rows are added to collection in the order of their ids");
+			id.iprintln(" */");
+			id.iprintln(MessageFormat.format("public static void Gen_readAll(net.sqlcipher.database.SQLiteDatabase db, long[] ids, java.util.Collection<{0}> collection, boolean inInputOrder) '{'", implementingClass));
+			id.iprintln(MessageFormat.format("Gen_readAll(db, {0}, ids, collection, GEN_NEW, inInputOrder);", TABLE_NAME_SYMBOL));
+			id.closeBrace();
+			id.iprintln(MessageFormat.format("public static void Gen_readAll(net.sqlcipher.database.SQLiteDatabase db, long[] ids, java.util.Collection<{0}> collection) '{'", implementingClass));
+			id.iprintln(MessageFormat.format("Gen_readAll(db, {0}, ids, collection, GEN_NEW, false);", TABLE_NAME_SYMBOL));
+			id.closeBrace();
+			id.nl();
+			id.iprintln("/**");
+			id.iprintln(" * Return the row with the given id from GEN_ENTITY_CACHE, reading it if it is not cached");
+			id.iprintln(" * @return Shared instance for the row, or null if there is no row with that id");
+			id.iprintln(" */");
+			id.iprintln(MessageFormat.format("public static {0} Gen_readCached(net.sqlcipher.database.SQLiteDatabase db, long id) '{'", implementingClass));
+			id.iprintln("return Gen_readCached(db, id, GEN_ENTITY_CACHE, GEN_NEW);");
+			id.closeBrace();
+		}
+		
+		for (FieldDefinition fd : fieldDefinitions)
+		{
+			if (fd.indexed || fd.unique || isSoleKey(fd))
+			{
+				String symbol=finderSymbol(fd);
+				boolean isObject=isReference(fd);
+				id.nl();
+				id.ivprintln(MessageFormat.format("static final String {0} = \"SELECT * FROM {1} WHERE {2} = ?\";", symbol, name.toUpperCase(), fd.columnName));
+				if (isObject)
+					id.ivprintln(MessageFormat.format("static final String {0}_NULL = \"SELECT * FROM {1} WHERE {2} IS NULL\";", symbol, name.toUpperCase(), fd.columnName));
+				id.iprintln("/**");
+				id.iprintln(MessageFormat.format(" * Read the rows with the given value of {0}, using its index.  The SQL is constant, so", fd.columnName));
+				id.iprintln(" * SQLCipher reuses its compiled statement; the value is bound with its native type through");
+				id.iprintln(" * SQLiteDatabase.rawQuery(String, Object[]), which requires SQLCipher for Android 4");
+				id.iprintln(" */");
+				id.iprintln(MessageFormat.format("public static <E extends {0}> void {1}(net.sqlcipher.database.SQLiteDatabase db, {2} value, java.util.Collection<E> collection, com.antlersoft.android.dbimpl.NewInstance<E> instanceGenerator) '{'",
+						implementingClass, finderName(fd, "Gen_findBy"), fd.javaType));
+				// The SQL is constant so the database's compiled statement cache is hit, and the
+				// value is bound with its native type
+				if (isObject)
+				{
+					id.iprintln(MessageFormat.format("android.database.Cursor c = value == null ? db.rawQuery({0}_NULL, (Object[])null) :", symbol));
+					id.iprintln(MessageFormat.format("    db.rawQuery({0}, new Object[] '{' {1} '}');", symbol, argumentValue(fd, "value")));
+				}
+				else
+				{
+					id.iprintln(MessageFormat.format("android.database.Cursor c = db.rawQuery({0}, new Object[] '{' {1} '}');", symbol, argumentValue(fd, "value")));
+				}
+				id.iprintln("try {");
+				id.iprintln("Gen_populateFromCursor(c, collection, instanceGenerator);");
+				id.closeBrace();
+				id.iprintln("finally {");
+				id.iprintln("c.close();");
+				id.closeBrace();
+				id.closeBrace();
+				if (! makeAbstract)
+				{
+					id.iprintln(MessageFormat.format("public static void {0}(net.sqlcipher.database.SQLiteDatabase db, {1} value, java.util.Collection<{2}> collection) '{'",
+							finderName(fd, "Gen_findBy"), fd.javaType, implementingClass));
+					id.iprintln(MessageFormat.format("{0}(db, value, collection, GEN_NEW);", finderName(fd, "Gen_findBy")));
+					id.closeBrace();
+				}
+				if (fd.unique && hasId() && ! fd.columnName.equals("_id"))
+				{
+					id.nl();
+					id.ivprintln(MessageFormat.format("static final String {0}_ID = \"SELECT _id FROM {1} WHERE {2} = ?\";", symbol, name.toUpperCase(), fd.columnName));
+					id.iprintln("/**");
+					id.iprintln(MessageFormat.format(" * Look up the _id of the row with the given value of {0} with a compiled statement", fd.columnName));
+					id.iprintln(" * @return The _id, or NO_ID if there is no such row");
+					id.iprintln(" */");
+					id.iprintln(MessageFormat.format("public static long {0}(net.sqlcipher.database.SQLiteDatabase db, {1} value) '{'",
+							finderName(fd, "Gen_idBy"), fd.javaType));
+					if (isObject)
+					{
+						// A unique column may hold any number of NULLs
+						id.iprintln("if (value == null) {");
+						id.iprintln("return NO_ID;");
+						id.closeBrace();
+					}
+					id.iprintln(MessageFormat.format("net.sqlcipher.database.SQLiteStatement statement = GEN_STATEMENTS.acquire(db, {0}_ID);", symbol));
+					id.iprintln("try {");
+					id.iprintln(bindValue(fd, "value", "1"));
+					id.iprintln("return statement.simpleQueryForLong();");
+					id.closeBrace();
+					id.iprintln("catch (net.sqlcipher.database.SQLiteDoneException sde) {");
+					id.iprintln("return NO_ID;");
+					id.closeBrace();
+					id.iprintln("finally {");
+					id.iprintln(MessageFormat.format("GEN_STATEMENTS.release(db, {0}_ID, statement);", symbol));
+					id.closeBrace();
+					id.closeBrace();
+				}
+			}
+		}
+		
 		id.nl();
 		// Create accessors for fields
 		id.iprintln( "// Field accessors");
@@ -315,7 +1032,22 @@ class TableDefinition {
 			}
 			if ( fd.putRequired)
 			{
-				id.iprintln( MessageFormat.format("public void {0}({1} arg_{2}) '{' gen_{2} = arg_{2}; '}'", fd.putName, fd.javaType, fd.name));
+				if (tracksDirty() && tracksNull(fd))
+				{
+					id.iprintln( MessageFormat.format("public void {0}({1} arg_{2}) '{' gen_{2} = arg_{2}; Gen_nulls &= ~(1L << {3}); Gen_dirty |= 1L << {3}; '}'", fd.putName, fd.javaType, fd.name, idSymbol(fd)));
+				}
+				else if (tracksNull(fd))
+				{
+					id.iprintln( MessageFormat.format("public void {0}({1} arg_{2}) '{' gen_{2} = arg_{2}; Gen_nulls &= ~(1L << {3}); '}'", fd.putName, fd.javaType, fd.name, idSymbol(fd)));
+				}
+				else if (tracksDirty() && ! fd.columnName.equals("_id"))
+				{
+					id.iprintln( MessageFormat.format("public void {0}({1} arg_{2}) '{' gen_{2} = arg_{2}; Gen_dirty |= 1L << {3}; '}'", fd.putName, fd.javaType, fd.name, idSymbol(fd)));
+				}
+				else
+				{
+					id.iprintln( MessageFormat.format("public void {0}({1} arg_{2}) '{' gen_{2} = arg_{2}; '}'", fd.putName, fd.javaType, fd.name));
+				}
 			}
 		}
 		id.nl();
@@ -323,25 +1055,96 @@ class TableDefinition {
 		id.iprintln( "android.content.ContentValues values=new android.content.ContentValues();");
 		for ( FieldDefinition fd : fieldDefinitions)
 		{
-			String stringValue = "this.gen_" + fd.name; 
-			if ( ! fd.javaTypeCode.equals("Ljava/lang/String;"))
+			// Put numeric values with their native type so they are bound as numbers rather than
+			// formatted as strings only to be parsed again by SQLite
+			String value = "this.gen_" + fd.name;
+			if ( fd.converter != null)
+			{
+				value = MessageFormat.format("({0} == null ? null : {1})", value, convertedValue(fd, value));
+			}
+			else if ( SourceFileGenerator.boxedPrimitive(fd.javaTypeCode) != null)
+			{
+				if ( fd.javaTypeCode.equals("Ljava/lang/Boolean;"))
+					value = MessageFormat.format("({0} == null ? null : Integer.valueOf({0} ? 1 : 0))", value);
+			}
+			else if ( ! fd.javaTypeCode.equals("Ljava/lang/String;") && ! fd.javaTypeCode.equals(SourceFileGenerator.BYTE_ARRAY))
 			{
 				if ( fd.javaTypeCode.startsWith(TypeParse.ARG_OBJREF))
-					stringValue = stringValue + ".toString()";
+					value = value + ".toString()";
 				else if ( fd.javaTypeCode.equals(TypeParse.ARG_BOOLEAN))
 				{
-					stringValue = MessageFormat.format("({0} ? \"1\" : \"0\")", stringValue);
+					// Stored as 1/0 so Gen_populate(ContentValues) can read it back with getAsInteger
+					value = MessageFormat.format("Integer.valueOf({0} ? 1 : 0)", value);
+				}
+				else if ( fd.javaTypeCode.equals(TypeParse.ARG_CHAR))
+				{
+					value = MessageFormat.format("String.valueOf({0})", value);
 				}
 				else
 				{
-					stringValue = MessageFormat.format("{0}.toString({1})", getObjectType(fd), stringValue);
+					value = MessageFormat.format("{0}.valueOf({1})", getObjectType(fd), value);
 				}
 			}
-			id.iprintln(MessageFormat.format("values.put({0},{1});", nameSymbol(fd), stringValue));
+			if ( tracksNull(fd))
+			{
+				id.iprintln(MessageFormat.format("if ((Gen_nulls & (1L << {0})) != 0) values.putNull({1}); else values.put({1},{2});",
+						idSymbol(fd), nameSymbol(fd), value));
+			}
+			else
+			{
+				id.iprintln(MessageFormat.format("values.put({0},{1});", nameSymbol(fd), value));
+			}
 		}
 		id.iprintln("return values;");
 		id.closeBrace();
 		
+		if (hasId())
+		{
+			id.nl();
+			id.iprintln("public com.antlersoft.android.dbimpl.StatementCache Gen_statementCache() { return GEN_STATEMENTS; }");
+			id.iprintln("public com.antlersoft.android.dbimpl.EntityCache<?> Gen_entityCache() { return GEN_ENTITY_CACHE; }");
+			if (withoutRowid)
+				id.iprintln("public boolean Gen_assignsId() { return false; }");
+			id.nl();
+			id.iprintln("/**");
+			id.iprintln(" * Bind the values of all fields but _id to an INSERT or UPDATE statement, in field order");
+			id.iprintln(" * @return Number of parameters bound");
+			id.iprintln(" */");
+			id.iprintln("public int Gen_bindValues(net.sqlcipher.database.SQLiteStatement statement) {");
+			ArrayList<FieldDefinition> bound=boundFields();
+			for (int i=0; i<bound.size(); i++)
+			{
+				id.iprintln(bindStatement(bound.get(i), Integer.toString(i+1)));
+			}
+			id.iprintln(MessageFormat.format("return {0};", bound.size()));
+			id.closeBrace();
+		}
+		
+		if (tracksDirty())
+		{
+			id.nl();
+			id.iprintln("/**");
+			id.iprintln(" * Bind the values of the fields in fieldMask to an UPDATE statement, in field order");
+			id.iprintln(" * @param fieldMask Bit (1L << GEN_ID_) set for each field to bind");
+			id.iprintln(" * @return Number of parameters bound");
+			id.iprintln(" */");
+			id.iprintln("public int Gen_bindValues(net.sqlcipher.database.SQLiteStatement statement, long fieldMask) {");
+			id.iprintln("int index=0;");
+			for (FieldDefinition fd : boundFields())
+			{
+				id.iprintln(MessageFormat.format("if ((fieldMask & (1L << {0})) != 0) '{'", idSymbol(fd)));
+				id.iprintln("index++;");
+				id.iprintln(bindStatement(fd, "index"));
+				id.closeBrace();
+			}
+			id.iprintln("return index;");
+			id.closeBrace();
+			id.nl();
+			id.iprintln("public long Gen_dirtyMask() { return Gen_dirty; }");
+			id.iprintln("public void Gen_clearDirty() { Gen_dirty = 0; }");
+			id.iprintln("public void Gen_restoreDirty(long mask) { Gen_dirty = mask; }");
+		}
+		
 		id.nl();
 		id.iprintln( "/**");
 		id.iprintln(" * Return an array that gives the column index in the cursor for each field defined");
@@ -349,6 +1152,14 @@ class TableDefinition {
 		id.iprintln(" * @return array of column indices; -1 if the column with that id is not in cursor");
 		id.iprintln(" */");
 		id.ivprintln("int[] Gen_columnIndices(android.database.Cursor cursor) {");
+		id.iprintln("return Gen_computeColumnIndices(cursor);");
+		id.closeBrace();
+		
+		id.nl();
+		id.iprintln("/**");
+		id.iprintln(" * Compute the column index in the cursor for each field defined, without an instance");
+		id.iprintln(" */");
+		id.iprintln("public static int[] Gen_computeColumnIndices(android.database.Cursor cursor) {");
 		id.iprintln(MessageFormat.format("int[] result=new int[{0}];",FIELD_COUNT_SYMBOL));
 		for (int i=0; i<fieldDefinitions.size(); i++)
 		{
@@ -365,6 +1176,12 @@ class TableDefinition {
 		id.iprintln("return result;");
 		id.closeBrace();
 		
+		id.nl();
+		id.iprintln("public com.antlersoft.android.dbimpl.ColumnIndicesCache Gen_columnIndicesCache() { return GEN_COLUMN_INDICES_CACHE; }");
+		
+		id.nl();
+		id.iprintln("protected String[] Gen_columnNames() { return GEN_COLUMNS; }");
+		
 		id.nl();
 		id.iprintln("/**");
 		id.iprintln(" * Populate one instance from a cursor ");
@@ -373,32 +1190,45 @@ class TableDefinition {
 		for (int i = 0; i < fieldDefinitions.size(); i++)
 		{
 			FieldDefinition fd=fieldDefinitions.get(i);
-			id.iprintln(MessageFormat.format("if ( columnIndices[{0}] >= 0 && ! cursor.isNull(columnIndices[{0}])) '{'", idSymbol(fd)));
-			switch (fd.type){
-			case INTEGER :
-			case INTEGER_PRIMARY_KEY :
-				if (fd.javaType.equals("boolean")) {
-					id.iprintln(MessageFormat.format("gen_{0} = (cursor.getInt(columnIndices[{1}]) != 0);",fd.name,idSymbol(fd)));
-				} else if (fd.javaType.equals("long")) {
-					id.iprintln(MessageFormat.format("gen_{0} = cursor.getLong(columnIndices[{1}]);",fd.name,idSymbol(fd)));					
-				} else {
-					id.iprintln(MessageFormat.format("gen_{0} = ({1})cursor.getInt(columnIndices[{2}]);",fd.name,fd.javaType,idSymbol(fd)));
-				}
-				break;
-			case REAL :
-				if (fd.javaType.equals("float")) {
-					id.iprintln(MessageFormat.format("gen_{0} = cursor.getFloat(columnIndices[{1}]);", fd.name, idSymbol(fd)));
-				} else {
-					id.iprintln(MessageFormat.format("gen_{0} = cursor.getDouble(columnIndices[{1}]);", fd.name, idSymbol(fd)));
-				}
-				break;
-			case TEXT :
-				if (fd.javaType.equals("char")) {
-					id.iprintln(MessageFormat.format("gen_{0} = cursor.getString(columnIndices[{1}]).charAt(0);", fd.name, idSymbol(fd)));
-				} else {
-					id.iprintln(MessageFormat.format("gen_{0} = cursor.getString(columnIndices[{1}]);", fd.name, idSymbol(fd)));
-				}
+			String value=cursorValue(fd, MessageFormat.format("columnIndices[{0}]", idSymbol(fd)));
+			// A NULL column sets a field of a reference type (String, byte[], boxed or converted) to
+			// null, as Gen_populate(ContentValues) does, so a reused instance doesn't keep the value
+			// from the previous row
+			if (value != null && isReference(fd))
+			{
+				id.iprintln(MessageFormat.format("if ( columnIndices[{0}] >= 0) '{'", idSymbol(fd)));
+				id.iprintln(MessageFormat.format("gen_{0} = cursor.isNull(columnIndices[{1}]) ? null : {2};", fd.name, idSymbol(fd), value));
+				id.closeBrace();
+				continue;
 			}
+			boolean nullBit=tracksNull(fd);
+			if (nullBit)
+			{
+				id.iprintln(MessageFormat.format("if ( columnIndices[{0}] >= 0) '{'", idSymbol(fd)));
+				id.iprintln(MessageFormat.format("if ( cursor.isNull(columnIndices[{0}])) '{'", idSymbol(fd)));
+				id.iprintln(MessageFormat.format("Gen_nulls |= 1L << {0};", idSymbol(fd)));
+				id.closeBrace();
+				id.iprintln("else {");
+				id.iprintln(MessageFormat.format("Gen_nulls &= ~(1L << {0});", idSymbol(fd)));
+			}
+			else
+			{
+				id.iprintln(MessageFormat.format("if ( columnIndices[{0}] >= 0 && ! cursor.isNull(columnIndices[{0}])) '{'", idSymbol(fd)));
+			}
+			if (value != null)
+				id.iprintln(MessageFormat.format("gen_{0} = {1};", fd.name, value));
+			id.closeBrace();
+			if (nullBit)
+				id.closeBrace();
+		}
+		if (tracksDirty())
+		{
+			// A projected read leaves the other fields, and any changes to them, as they were
+			id.iprintln("// Only the fields read from the cursor are now unchanged");
+			id.iprintln(MessageFormat.format("for (int i=0; i<{0}; i++) '{'", FIELD_COUNT_SYMBOL));
+			id.iprintln("if ( columnIndices[i] >= 0) {");
+			id.iprintln("Gen_dirty &= ~(1L << i);");
+			id.closeBrace();
 			id.closeBrace();
 		}
 		id.closeBrace();
@@ -411,15 +1241,51 @@ class TableDefinition {
 		for (int i = 0; i < fieldDefinitions.size(); i++)
 		{
 			FieldDefinition fd=fieldDefinitions.get(i);
+			if (fd.converter != null)
+			{
+				String[] storage=converterStorage(fd);
+				id.iprintln(MessageFormat.format("gen_{0} = values.get({1}) == null ? null : {2}.from{3}(values.{4}({1}));",
+						fd.name, nameSymbol(fd), converterSymbol(fd), storage[0], storage[3]));
+				continue;
+			}
+			String boxed=SourceFileGenerator.boxedPrimitive(fd.javaTypeCode);
+			if (boxed != null)
+			{
+				if (boxed.equals("boolean"))
+				{
+					id.iprintln(MessageFormat.format("gen_{0} = values.getAsInteger({1}) == null ? null : Boolean.valueOf(values.getAsInteger({1}) != 0);",
+							fd.name, nameSymbol(fd)));
+				}
+				else
+				{
+					id.iprintln(MessageFormat.format("gen_{0} = values.getAs{1}({2});", fd.name, fd.javaType.substring("java.lang.".length()), nameSymbol(fd)));
+				}
+				continue;
+			}
+			// A primitive field is left unchanged by a missing or NULL value, as when populating from a cursor
+			boolean primitive=! isReference(fd);
+			boolean nullBit=tracksNull(fd);
+			if (nullBit)
+			{
+				id.iprintln(MessageFormat.format("if ( values.get({0}) == null) '{'", nameSymbol(fd)));
+				id.iprintln(MessageFormat.format("Gen_nulls |= 1L << {0};", idSymbol(fd)));
+				id.closeBrace();
+				id.iprintln("else {");
+				id.iprintln(MessageFormat.format("Gen_nulls &= ~(1L << {0});", idSymbol(fd)));
+			}
+			else if (primitive)
+			{
+				id.iprintln(MessageFormat.format("if ( values.get({0}) != null) '{'", nameSymbol(fd)));
+			}
 			switch (fd.type){
 			case INTEGER :
 			case INTEGER_PRIMARY_KEY :
 				if (fd.javaType.equals("boolean")) {
-					id.iprintln(MessageFormat.format("gen_{0} = (values.getAsInteger({1}) != 0);",fd.name,nameSymbol(fd)));
+					id.iprintln(MessageFormat.format("gen_{0} = (values.getAsInteger({1}).intValue() != 0);",fd.name,nameSymbol(fd)));
 				} else if (fd.javaType.equals("long")) {
-					id.iprintln(MessageFormat.format("gen_{0} = values.getAsLong({1});",fd.name,nameSymbol(fd)));					
+					id.iprintln(MessageFormat.format("gen_{0} = values.getAsLong({1}).longValue();",fd.name,nameSymbol(fd)));
 				} else {
-					id.iprintln(MessageFormat.format("gen_{0} = ({2})values.getAsInteger({1});",fd.name,nameSymbol(fd),fd.javaType));
+					id.iprintln(MessageFormat.format("gen_{0} = ({2})values.getAsInteger({1}).intValue();",fd.name,nameSymbol(fd),fd.javaType));
 				}
 				break;
 			case REAL :
@@ -435,8 +1301,144 @@ class TableDefinition {
 				} else {
 					id.iprintln(MessageFormat.format("gen_{0} = values.getAsString({1});", fd.name, nameSymbol(fd)));
 				}
+				break;
+			case BLOB :
+				if (fd.javaTypeCode.equals(SourceFileGenerator.BYTE_ARRAY)) {
+					id.iprintln(MessageFormat.format("gen_{0} = values.getAsByteArray({1});", fd.name, nameSymbol(fd)));
+				}
+				break;
+			}
+			if (primitive)
+				id.closeBrace();
+		}
+		if (tracksDirty())
+			id.iprintln("Gen_dirty = 0;");
+		id.closeBrace();
+		// End of class
+		id.closeBrace();
+	}
+	
+	/**
+	 * @return Java expression for the value a field of the value class has when its column is
+	 * missing or NULL
+	 */
+	private static String defaultJavaValue(FieldDefinition fd)
+	{
+		if (isReference(fd))
+			return "null";
+		if (fd.javaType.equals("boolean"))
+			return "false";
+		if (fd.javaType.equals("char"))
+			return "(char)0";
+		return "0";
+	}
+	
+	/**
+	 * Write the immutable value class, which holds the fields of one row as read from a cursor
+	 * @param pw
+	 * @throws SourceInterface.SIException
+	 */
+	void generateValueClassDefinition( PrintWriter pw)
+	throws SourceInterface.SIException
+	{
+		Indenter id=new Indenter(pw);
+		pw.println( MessageFormat.format( "// This class was generated from {0}.{1} by a tool", packageName, interfaceName));
+		pw.println( "// Do not edit this file directly! PLX THX");
+		pw.println( MessageFormat.format( "package {0};", packageName));
+		id.nl();
+		id.iprintln("/**");
+		id.iprintln(MessageFormat.format(" * Values of a row of {0}, for reading only.  The fields are final, so instances can be", name.toUpperCase()));
+		id.iprintln(" * shared between threads without copying.");
+		id.iprintln(" */");
+		id.ivprintln( MessageFormat.format( "final class {0} '{'", valueClass));
+		for ( FieldDefinition fd : fieldDefinitions)
+		{
+			id.iprintln(MessageFormat.format("private final {0} gen_{1};", fd.javaType, fd.name));
+		}
+		if (trackNulls)
+		{
+			id.iprintln("/** Bit (1L << GEN_ID_) set for each nullable primitive field that is NULL */");
+			id.iprintln("private final long gen_nulls;");
+		}
+		for ( FieldDefinition fd : fieldDefinitions)
+		{
+			if ( fd.converter != null)
+				id.iprintln(MessageFormat.format("private static final {0} {1} = new {0}({2});", fd.converter, converterSymbol(fd), fd.converterArguments));
+		}
+		
+		id.nl();
+		id.iprintln("/**");
+		id.iprintln(" * Read the current row of a cursor; fields whose columns are missing or NULL get the default");
+		id.iprintln(" * value for their type");
+		id.iprintln(MessageFormat.format(" * @param columnIndices Column indices from {0}.GEN_ROW_MAPPER.getColumnIndices(cursor)", implementingClass));
+		id.iprintln(" */");
+		id.iprintln(MessageFormat.format("public {0}(android.database.Cursor cursor, int[] columnIndices) '{'", valueClass));
+		for ( FieldDefinition fd : fieldDefinitions)
+		{
+			String column=MessageFormat.format("columnIndices[{0}.{1}]", implementingClass, idSymbol(fd));
+			String value=cursorValue(fd, column);
+			id.iprintln(MessageFormat.format("gen_{0} = {1} >= 0 && ! cursor.isNull({1}) ? {2} : {3};",
+					fd.name, column, value == null ? defaultJavaValue(fd) : value, defaultJavaValue(fd)));
+		}
+		if (trackNulls)
+		{
+			id.iprintln("long nulls = 0;");
+			for ( FieldDefinition fd : fieldDefinitions)
+			{
+				if (tracksNull(fd))
+				{
+					String column=MessageFormat.format("columnIndices[{0}.{1}]", implementingClass, idSymbol(fd));
+					id.iprintln(MessageFormat.format("if ({0} >= 0 && cursor.isNull({0})) nulls |= 1L << {1}.{2};", column, implementingClass, idSymbol(fd)));
+				}
 			}
+			id.iprintln("gen_nulls = nulls;");
+		}
+		id.closeBrace();
+		
+		id.nl();
+		for ( FieldDefinition fd : fieldDefinitions)
+		{
+			if ( fd.getRequired)
+				id.iprintln( MessageFormat.format("public {0} {1}() '{' return gen_{2}; '}'", fd.javaType, fd.getName, fd.name));
+		}
+		if (trackNulls)
+		{
+			id.nl();
+			id.iprintln("/**");
+			id.iprintln(MessageFormat.format(" * @param fieldId {0}.GEN_ID_ constant of a nullable field with a primitive type", implementingClass));
+			id.iprintln(" * @return true if the field is NULL");
+			id.iprintln(" */");
+			id.iprintln("public boolean Gen_isNull(int fieldId) { return (gen_nulls & (1L << fieldId)) != 0; }");
 		}
+		
+		id.nl();
+		id.iprintln("/**");
+		id.iprintln(" * Read every row of a cursor, from the first");
+		id.iprintln(" */");
+		id.iprintln(MessageFormat.format("public static void Gen_readAll(android.database.Cursor cursor, java.util.Collection<? super {0}> collection) '{'", valueClass));
+		id.iprintln("if (cursor.moveToFirst()) {");
+		id.iprintln(MessageFormat.format("int[] columnIndices = {0}.GEN_ROW_MAPPER.getColumnIndices(cursor);", implementingClass));
+		id.iprintln("do {");
+		id.iprintln(MessageFormat.format("collection.add(new {0}(cursor, columnIndices));", valueClass));
+		id.closeBrace();
+		id.iprintln("while (cursor.moveToNext());");
+		id.closeBrace();
+		id.closeBrace();
+		
+		id.nl();
+		id.iprintln("/**");
+		id.iprintln(" * Read the specified columns of all the rows of the table; fields for other columns get their");
+		id.iprintln(" * default values");
+		id.iprintln(" * @param columns Columns to read, as from Gen_projection; null for all columns");
+		id.iprintln(" */");
+		id.iprintln(MessageFormat.format("public static void Gen_getAll(net.sqlcipher.database.SQLiteDatabase db, String[] columns, java.util.Collection<? super {0}> collection) '{'", valueClass));
+		id.iprintln(MessageFormat.format("android.database.Cursor c = db.query({0}.{1}, columns, null, null, null, null, null);", implementingClass, TABLE_NAME_SYMBOL));
+		id.iprintln("try {");
+		id.iprintln("Gen_readAll(c, collection);");
+		id.closeBrace();
+		id.iprintln("finally {");
+		id.iprintln("c.close();");
+		id.closeBrace();
 		id.closeBrace();
 		// End of class
 		id.closeBrace();
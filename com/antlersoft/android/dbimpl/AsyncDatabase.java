@@ -0,0 +1,225 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import net.sqlcipher.database.SQLiteDatabase;
+
+/**
+ * Runs reads and writes of a database on background threads, returning a Future for each.
+ * <p>
+ * All writes run in order on a single writer thread, since SQLite allows only one writer at a
+ * time; reads run on a pool of reader threads.  Reads only run concurrently with each other and
+ * with the writer if the database allows it (write-ahead logging enabled); otherwise the
+ * database's own locking serializes them, but they still don't block the calling thread.
+ * <p>
+ * An instance passed to one of these methods must not be used by the caller until its Future
+ * completes.
+ *
+ * @author Michael A. MacDonald
+ *
+ */
+public class AsyncDatabase {
+	/**
+	 * Number of reader threads if none is specified
+	 */
+	public static final int DEFAULT_READERS = 2;
+
+	private final SQLiteDatabase db;
+	private final ExecutorService writer;
+	private final ExecutorService readers;
+
+	public AsyncDatabase(SQLiteDatabase db)
+	{
+		this(db, DEFAULT_READERS);
+	}
+
+	/**
+	 * @param db Database to read and write
+	 * @param readerThreads Number of threads that run reads
+	 */
+	public AsyncDatabase(SQLiteDatabase db, int readerThreads)
+	{
+		if (readerThreads<1)
+			throw new IllegalArgumentException("readerThreads must be at least 1");
+		this.db=db;
+		writer=Executors.newSingleThreadExecutor(new NamedThreadFactory("AsyncDatabase writer"));
+		readers=Executors.newFixedThreadPool(readerThreads, new NamedThreadFactory("AsyncDatabase reader"));
+	}
+
+	public SQLiteDatabase getDatabase()
+	{
+		return db;
+	}
+
+	/**
+	 * Run a task that only reads the database on a reader thread
+	 */
+	public <T> Future<T> read(DatabaseTask<T> task)
+	{
+		return readers.submit(callable(task));
+	}
+
+	/**
+	 * Run a task that writes the database on the writer thread, after the writes submitted before it
+	 */
+	public <T> Future<T> write(DatabaseTask<T> task)
+	{
+		return writer.submit(callable(task));
+	}
+
+	/**
+	 * Run a task on the writer thread in one transaction, which is committed if the task returns
+	 * normally and rolled back if it throws
+	 */
+	public <T> Future<T> batch(final DatabaseTask<T> task)
+	{
+		return write(new DatabaseTask<T>() {
+			public T run(SQLiteDatabase database) {
+				database.beginTransaction();
+				try
+				{
+					T result=task.run(database);
+					database.setTransactionSuccessful();
+					return result;
+				}
+				finally
+				{
+					database.endTransaction();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Populate an instance from the row with the given id
+	 * @return Future for whether the row was found
+	 */
+	public Future<Boolean> read(final IdImplementationBase instance, final long id, final int... fieldIds)
+	{
+		return read(new DatabaseTask<Boolean>() {
+			public Boolean run(SQLiteDatabase database) {
+				return Boolean.valueOf(instance.Gen_read(database, id, fieldIds));
+			}
+		});
+	}
+
+	/**
+	 * Read the specified columns of all the rows of a table
+	 * @param columns Columns to read, as from Gen_projection; null for all columns
+	 */
+	public <E extends ImplementationBase> Future<ArrayList<E>> getAll(final String tableName, final String[] columns, final NewInstance<E> instanceGenerator)
+	{
+		return read(new DatabaseTask<ArrayList<E>>() {
+			public ArrayList<E> run(SQLiteDatabase database) {
+				ArrayList<E> result=new ArrayList<E>();
+				ImplementationBase.getAll(database, tableName, columns, result, instanceGenerator);
+				return result;
+			}
+		});
+	}
+
+	/**
+	 * @return Future for whether the row was inserted
+	 */
+	public Future<Boolean> insert(final IdImplementationBase instance)
+	{
+		return write(new DatabaseTask<Boolean>() {
+			public Boolean run(SQLiteDatabase database) {
+				return Boolean.valueOf(instance.Gen_insert(database));
+			}
+		});
+	}
+
+	/**
+	 * @return Future for the number of rows updated
+	 */
+	public Future<Integer> update(final IdImplementationBase instance)
+	{
+		return write(new DatabaseTask<Integer>() {
+			public Integer run(SQLiteDatabase database) {
+				return Integer.valueOf(instance.Gen_update(database));
+			}
+		});
+	}
+
+	/**
+	 * @return Future for the number of rows deleted
+	 */
+	public Future<Integer> delete(final IdImplementationBase instance)
+	{
+		return write(new DatabaseTask<Integer>() {
+			public Integer run(SQLiteDatabase database) {
+				return Integer.valueOf(instance.Gen_delete(database));
+			}
+		});
+	}
+
+	/**
+	 * Insert a collection of rows in one transaction with IdImplementationBase.Gen_insertAll
+	 * @return Future for the number of rows inserted
+	 */
+	public <E extends IdImplementationBase> Future<Integer> insertAll(final Collection<E> instances)
+	{
+		return write(new DatabaseTask<Integer>() {
+			public Integer run(SQLiteDatabase database) {
+				return Integer.valueOf(IdImplementationBase.Gen_insertAll(database, instances));
+			}
+		});
+	}
+
+	/**
+	 * Stop accepting tasks; tasks already submitted still run
+	 */
+	public void shutdown()
+	{
+		writer.shutdown();
+		readers.shutdown();
+	}
+
+	/**
+	 * Wait for the tasks submitted before shutdown to finish
+	 * @return true if they finished, false if the timeout elapsed first
+	 */
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		long deadline=System.nanoTime()+unit.toNanos(timeout);
+		if (! writer.awaitTermination(timeout, unit))
+			return false;
+		return readers.awaitTermination(Math.max(0, deadline-System.nanoTime()), TimeUnit.NANOSECONDS);
+	}
+
+	private <T> Callable<T> callable(final DatabaseTask<T> task)
+	{
+		return new Callable<T>() {
+			public T call() {
+				return task.run(db);
+			}
+		};
+	}
+
+	static class NamedThreadFactory implements ThreadFactory {
+		private final String name;
+		private int count;
+
+		NamedThreadFactory(String name)
+		{
+			this.name=name;
+		}
+
+		public synchronized Thread newThread(Runnable r) {
+			Thread t=new Thread(r, name+" "+(++count));
+			t.setDaemon(true);
+			return t;
+		}
+	}
+}
@@ -0,0 +1,15 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+/**
+ * Converts values of a field's Java type to and from a byte array, for a field with
+ * Type=FieldType.BLOB; see LongConverter
+ * @author Michael A. MacDonald
+ *
+ */
+public interface BlobConverter<T> {
+	public byte[] toBytes(T value);
+	public T fromBytes(byte[] stored);
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.Arrays;
+
+import android.database.Cursor;
+
+/**
+ * Remembers the result of Gen_columnIndices for the last few cursor column layouts seen for
+ * a table, so reading with the same projection again doesn't look up every column by name.
+ * <p>
+ * The key is the cursor's array of column names; the indices of a table's fields depend on
+ * nothing else.  The arrays returned are shared between callers and must not be modified.
+ * 
+ * @author Michael A. MacDonald
+ *
+ */
+public class ColumnIndicesCache {
+	/**
+	 * Number of different column layouts remembered; when full the oldest is replaced
+	 */
+	static final int MAX_LAYOUTS = 8;
+	
+	private String[][] layouts;
+	private int[][] indices;
+	private int count;
+	private int nextReplaced;
+	private long hits;
+	private long misses;
+	
+	public ColumnIndicesCache()
+	{
+		layouts=new String[MAX_LAYOUTS][];
+		indices=new int[MAX_LAYOUTS][];
+	}
+	
+	/**
+	 * Return the column indices for the table's fields in a cursor, computing them with
+	 * Gen_columnIndices if the cursor's layout has not been seen
+	 * @param cursor Database cursor over some columns, possibly including this table
+	 * @param instance Instance of the table's class, used to compute indices
+	 * @return array of column indices; -1 if the column with that id is not in cursor
+	 */
+	public int[] get(Cursor cursor, ImplementationBase instance)
+	{
+		String[] names=cursor.getColumnNames();
+		int[] result=find(names);
+		if (result==null)
+		{
+			result=instance.Gen_columnIndices(cursor);
+			store(names, result);
+		}
+		return result;
+	}
+	
+	/**
+	 * Return the column indices for the table's fields in a cursor, computing them with
+	 * the RowMapper if the cursor's layout has not been seen
+	 * @param cursor Database cursor over some columns, possibly including this table
+	 * @param mapper RowMapper for the table, used to compute indices
+	 * @return array of column indices; -1 if the column with that id is not in cursor
+	 */
+	public int[] get(Cursor cursor, RowMapper<?> mapper)
+	{
+		String[] names=cursor.getColumnNames();
+		int[] result=find(names);
+		if (result==null)
+		{
+			result=mapper.computeColumnIndices(cursor);
+			store(names, result);
+		}
+		return result;
+	}
+	
+	private synchronized int[] find(String[] names)
+	{
+		for (int i=0; i<count; i++)
+		{
+			if (layouts[i]==names || Arrays.equals(layouts[i], names))
+			{
+				hits++;
+				return indices[i];
+			}
+		}
+		misses++;
+		return null;
+	}
+	
+	private synchronized void store(String[] names, int[] result)
+	{
+		int slot;
+		if (count<MAX_LAYOUTS)
+		{
+			slot=count++;
+		}
+		else
+		{
+			slot=nextReplaced;
+			nextReplaced=(nextReplaced+1)%MAX_LAYOUTS;
+		}
+		layouts[slot]=names.clone();
+		indices[slot]=result;
+	}
+	
+	/**
+	 * @return Number of lookups answered from the cache
+	 */
+	public synchronized long getHits()
+	{
+		return hits;
+	}
+	
+	/**
+	 * @return Number of lookups that had to compute the column indices
+	 */
+	public synchronized long getMisses()
+	{
+		return misses;
+	}
+	
+	/**
+	 * @return Fraction of lookups answered from the cache; 0 if there have been none
+	 */
+	public synchronized double getHitRate()
+	{
+		long total=hits+misses;
+		return total==0 ? 0.0 : (double)hits/total;
+	}
+	
+	/**
+	 * Forget all cached layouts and reset the hit and miss counts
+	 */
+	public synchronized void clear()
+	{
+		Arrays.fill(layouts, null);
+		Arrays.fill(indices, null);
+		count=0;
+		nextReplaced=0;
+		hits=0;
+		misses=0;
+	}
+}
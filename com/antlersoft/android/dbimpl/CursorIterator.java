@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import android.database.Cursor;
+
+/**
+ * Iterates over the rows of a cursor, populating an instance for each row only when it is
+ * reached, so scanning a large table does not hold every row in memory at once.
+ * <p>
+ * The iterator owns the cursor; it closes it when the last row has been returned, or when
+ * close is called.  Callers that may stop before the end must call close.
+ * <p>
+ * In flyweight mode a single instance is populated again for every row and returned each time,
+ * so no instance returned may be kept after the next call to next().  For a NULL column,
+ * Gen_populate sets a field of a reference type (String, byte[], boxed or converted) to null
+ * and sets the null bit of a primitive field in a TrackNulls table, but leaves any other
+ * primitive field unchanged, so with a flyweight such a field shows the value from an earlier
+ * row.  Fields whose columns are not in the cursor are always left unchanged.
+ * <p>
+ * This is its own Iterable, so it can be used in a for-each loop; it can only be iterated once.
+ * 
+ * @author Michael A. MacDonald
+ *
+ */
+public class CursorIterator<E extends ImplementationBase> implements Iterator<E>, Iterable<E>, Closeable {
+	private Cursor cursor;
+	private NewInstance<E> instanceGenerator;
+	private boolean flyweight;
+	private E instance;
+	private int[] columnIndices;
+	/** True when the cursor is positioned on a row that has not been returned */
+	private boolean onRow;
+	
+	/**
+	 * @param cursor Cursor positioned before the first row to return
+	 * @param instanceGenerator Creates instances to populate
+	 * @param flyweight If true, populate and return the same instance for every row
+	 */
+	public CursorIterator(Cursor cursor, NewInstance<E> instanceGenerator, boolean flyweight)
+	{
+		this.cursor=cursor;
+		this.instanceGenerator=instanceGenerator;
+		this.flyweight=flyweight;
+		onRow=cursor.moveToNext();
+		if (! onRow)
+			close();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Iterable#iterator()
+	 */
+	public Iterator<E> iterator() {
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.Iterator#hasNext()
+	 */
+	public boolean hasNext() {
+		return onRow;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.Iterator#next()
+	 */
+	public E next() {
+		if (! onRow)
+			throw new NoSuchElementException();
+		E result=instance;
+		if (result==null)
+		{
+			result=instanceGenerator.get();
+			if (flyweight)
+				instance=result;
+		}
+		if (columnIndices==null)
+			columnIndices=result.Gen_cachedColumnIndices(cursor);
+		result.Gen_populate(cursor, columnIndices);
+		onRow=cursor.moveToNext();
+		if (! onRow)
+			close();
+		return result;
+	}
+
+	/**
+	 * Not supported
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+	
+	/**
+	 * Close the underlying cursor; no more rows will be returned
+	 */
+	public void close() {
+		onRow=false;
+		if (cursor!=null)
+		{
+			cursor.close();
+			cursor=null;
+		}
+	}
+}
@@ -0,0 +1,15 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import net.sqlcipher.database.SQLiteDatabase;
+
+/**
+ * Work run against a database by AsyncDatabase on one of its threads
+ * @author Michael A. MacDonald
+ *
+ */
+public interface DatabaseTask<T> {
+	public T run(SQLiteDatabase db);
+}
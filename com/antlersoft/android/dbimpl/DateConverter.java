@@ -0,0 +1,22 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.Date;
+
+/**
+ * Stores a java.util.Date as an INTEGER of milliseconds since the epoch
+ * @author Michael A. MacDonald
+ *
+ */
+public class DateConverter implements LongConverter<Date> {
+
+	public long toLong(Date value) {
+		return value.getTime();
+	}
+
+	public Date fromLong(long stored) {
+		return new Date(stored);
+	}
+}
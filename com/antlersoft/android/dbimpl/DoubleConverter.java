@@ -0,0 +1,15 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+/**
+ * Converts values of a field's Java type to and from a double, for a field with
+ * Type=FieldType.REAL; see LongConverter
+ * @author Michael A. MacDonald
+ *
+ */
+public interface DoubleConverter<T> {
+	public double toDouble(T value);
+	public T fromDouble(double stored);
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+/**
+ * Size-bounded cache of rows of one table, keyed by primitive _id and evicting the least
+ * recently used row when full.  It is also an identity map: reads through
+ * IdImplementationBase.Gen_readCached return the same instance for the same _id while it
+ * stays in the cache, so instances read this way should be treated as shared.
+ * <p>
+ * IdImplementationBase.Gen_update and Gen_delete remove the row from its table's cache.
+ * A cache with capacity 0 (the default for generated classes) holds nothing; call setCapacity
+ * to enable it.
+ * 
+ * @author Michael A. MacDonald
+ *
+ */
+public class EntityCache<E extends IdImplementationBase> {
+	private static final int NONE = -1;
+	
+	private LongIndexMap slots;
+	private long[] ids;
+	private Object[] entities;
+	/** Doubly linked list of used slots, most recently used first; next also links free slots */
+	private int[] previous;
+	private int[] next;
+	private int head;
+	private int tail;
+	private int free;
+	private int size;
+	
+	/**
+	 * @param capacity Maximum number of rows held; 0 to disable the cache
+	 */
+	public EntityCache(int capacity)
+	{
+		allocate(capacity);
+	}
+	
+	/**
+	 * @param id
+	 * @return The cached instance for the id, or null if it is not cached
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized E get(long id)
+	{
+		int slot=slots.get(id);
+		if (slot==LongIndexMap.NOT_FOUND)
+			return null;
+		unlink(slot);
+		linkFirst(slot);
+		return (E)entities[slot];
+	}
+	
+	/**
+	 * Add an instance to the cache under its current _id, replacing any instance cached for
+	 * that id
+	 * @param entity
+	 */
+	public synchronized void put(E entity)
+	{
+		if (ids.length==0)
+			return;
+		long id=entity.get_Id();
+		int slot=slots.get(id);
+		if (slot!=LongIndexMap.NOT_FOUND)
+		{
+			unlink(slot);
+		}
+		else
+		{
+			if (free==NONE)
+			{
+				// Evict least recently used
+				slot=tail;
+				unlink(slot);
+				slots.remove(ids[slot]);
+			}
+			else
+			{
+				slot=free;
+				free=next[slot];
+				size++;
+			}
+			ids[slot]=id;
+			slots.put(id, slot);
+		}
+		entities[slot]=entity;
+		linkFirst(slot);
+	}
+	
+	/**
+	 * Remove any instance cached for the id
+	 * @param id
+	 */
+	public synchronized void remove(long id)
+	{
+		int slot=slots.remove(id);
+		if (slot!=LongIndexMap.NOT_FOUND)
+		{
+			unlink(slot);
+			entities[slot]=null;
+			next[slot]=free;
+			free=slot;
+			size--;
+		}
+	}
+	
+	/**
+	 * Remove all cached instances
+	 */
+	public synchronized void clear()
+	{
+		allocate(ids.length);
+	}
+	
+	/**
+	 * Change the maximum number of rows held, removing all cached instances
+	 * @param capacity Maximum number of rows held; 0 to disable the cache
+	 */
+	public synchronized void setCapacity(int capacity)
+	{
+		allocate(capacity);
+	}
+	
+	public synchronized int getCapacity()
+	{
+		return ids.length;
+	}
+	
+	public synchronized int size()
+	{
+		return size;
+	}
+	
+	private void allocate(int capacity)
+	{
+		if (capacity<0)
+			throw new IllegalArgumentException("EntityCache capacity must not be negative");
+		slots=new LongIndexMap(capacity);
+		ids=new long[capacity];
+		entities=new Object[capacity];
+		previous=new int[capacity];
+		next=new int[capacity];
+		for (int i=0; i<capacity; i++)
+			next[i]=i+1<capacity ? i+1 : NONE;
+		free=capacity>0 ? 0 : NONE;
+		head=NONE;
+		tail=NONE;
+		size=0;
+	}
+	
+	private void unlink(int slot)
+	{
+		if (previous[slot]==NONE)
+			head=next[slot];
+		else
+			next[previous[slot]]=next[slot];
+		if (next[slot]==NONE)
+			tail=previous[slot];
+		else
+			previous[next[slot]]=previous[slot];
+	}
+	
+	private void linkFirst(int slot)
+	{
+		previous[slot]=NONE;
+		next[slot]=head;
+		if (head==NONE)
+			tail=slot;
+		else
+			previous[head]=slot;
+		head=slot;
+	}
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.HashMap;
+
+/**
+ * Stores an enum as TEXT holding its name; used for fields with EnumStorage=EnumStorage.NAME.
+ * Names are looked up in a table built once, rather than with Enum.valueOf for every row.
+ * @author Michael A. MacDonald
+ *
+ */
+public class EnumNameConverter<E extends Enum<E>> implements StringConverter<E> {
+	private final Class<E> enumClass;
+	private final HashMap<String,E> byName;
+	
+	public EnumNameConverter(Class<E> enumClass) {
+		this.enumClass=enumClass;
+		E[] values=enumClass.getEnumConstants();
+		byName=new HashMap<String,E>(values.length*2);
+		for (E value : values)
+			byName.put(value.name(), value);
+	}
+
+	public String toText(E value) {
+		return value.name();
+	}
+
+	public E fromText(String stored) {
+		E result=byName.get(stored);
+		if (result==null)
+			throw new IllegalArgumentException("No "+enumClass.getName()+" named "+stored);
+		return result;
+	}
+}
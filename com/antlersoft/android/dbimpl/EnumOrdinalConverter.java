@@ -0,0 +1,31 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+/**
+ * Stores an enum as an INTEGER holding its ordinal; used for fields with
+ * EnumStorage=EnumStorage.ORDINAL.  The constants are fetched once, so reading a value
+ * is an array lookup.
+ * @author Michael A. MacDonald
+ *
+ */
+public class EnumOrdinalConverter<E extends Enum<E>> implements LongConverter<E> {
+	private final Class<E> enumClass;
+	private final E[] values;
+	
+	public EnumOrdinalConverter(Class<E> enumClass) {
+		this.enumClass=enumClass;
+		values=enumClass.getEnumConstants();
+	}
+
+	public long toLong(E value) {
+		return value.ordinal();
+	}
+
+	public E fromLong(long stored) {
+		if (stored<0 || stored>=values.length)
+			throw new IllegalArgumentException("No "+enumClass.getName()+" with ordinal "+stored);
+		return values[(int)stored];
+	}
+}
@@ -5,7 +5,14 @@ package com.antlersoft.android.dbimpl;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.SQLException;
 import net.sqlcipher.database.SQLiteDatabase;
+import net.sqlcipher.database.SQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 
 /**
  * Specialization of ImplementationBase for tables that have a long
@@ -18,6 +25,100 @@ public abstract class IdImplementationBase extends ImplementationBase {
 	public abstract long get_Id();
 	public abstract void set_Id(long id);
 	
+	/**
+	 * Return the compiled statements used to write rows of this table.  Classes generated
+	 * by older versions of the plugin don't override this, and are written through
+	 * ContentValues instead.
+	 * @return StatementCache for this table, or null if there is none
+	 */
+	public StatementCache Gen_statementCache() {
+		return null;
+	}
+	
+	/**
+	 * Returned by generated Gen_idBy methods when there is no matching row
+	 */
+	public static final long NO_ID = -1L;
+	
+	/**
+	 * Value of Gen_dirtyMask when the generated class doesn't track which fields have changed
+	 */
+	public static final long ALL_FIELDS = -1L;
+	
+	/**
+	 * Return which fields have been changed by a setter since this instance was last read or
+	 * written.  Classes generated by older versions of the plugin, or for tables with more than
+	 * 64 fields, don't override this.
+	 * @return Bit (1L << GEN_ID_) set for each changed field, or ALL_FIELDS if changes aren't tracked
+	 */
+	public long Gen_dirtyMask() {
+		return ALL_FIELDS;
+	}
+	
+	/**
+	 * Mark all fields as unchanged
+	 */
+	public void Gen_clearDirty() {
+	}
+	
+	/**
+	 * Set which fields are marked as changed, as returned earlier by Gen_dirtyMask; used to undo
+	 * Gen_clearDirty when a write is rolled back
+	 * @param mask Value returned by Gen_dirtyMask
+	 */
+	public void Gen_restoreDirty(long mask) {
+	}
+	
+	/**
+	 * Bind the values of the fields in fieldMask to an UPDATE statement, in field order
+	 * starting from parameter 1.  Overridden by the generated class whenever Gen_dirtyMask is.
+	 * @param statement Compiled statement
+	 * @param fieldMask Bit (1L << GEN_ID_) set for each field to bind
+	 * @return Number of parameters bound
+	 */
+	public int Gen_bindValues(SQLiteStatement statement, long fieldMask) {
+		throw new UnsupportedOperationException("Gen_bindValues not implemented for "+Gen_tableName());
+	}
+	
+	/**
+	 * Return the cache of rows of this table that Gen_update and Gen_delete invalidate.
+	 * Classes generated by older versions of the plugin don't override this.
+	 * @return EntityCache for this table, or null if there is none
+	 */
+	public EntityCache<?> Gen_entityCache() {
+		return null;
+	}
+	
+	/**
+	 * Bind the values of all fields but _id to an INSERT or UPDATE statement from the
+	 * StatementCache, in field order starting from parameter 1.  Overridden by the generated
+	 * class whenever Gen_statementCache is.
+	 * @param statement Compiled statement
+	 * @return Number of parameters bound
+	 */
+	public int Gen_bindValues(SQLiteStatement statement) {
+		throw new UnsupportedOperationException("Gen_bindValues not implemented for "+Gen_tableName());
+	}
+	
+	/**
+	 * Whether the database assigns the _id of an inserted row.  Generated classes for WITHOUT ROWID
+	 * tables override this to return false; their rows are inserted with the _id already set on the instance.
+	 * @return true if inserting a row assigns its _id
+	 */
+	public boolean Gen_assignsId() {
+		return true;
+	}
+	
+	/**
+	 * Whether this instance has the _id of a row.  The database assigns ids starting from 1, so
+	 * an _id of 0 (a new instance) or NO_ID has not been assigned yet; instances of tables whose
+	 * _id the database doesn't assign always have one.
+	 * @return true if the _id identifies a row
+	 */
+	public boolean Gen_hasId() {
+		return ! Gen_assignsId() || get_Id()>0;
+	}
+	
 	/**
 	 * Return the same ContentValues object with _ID field removed
 	 * @param cv
@@ -36,12 +137,31 @@ public abstract class IdImplementationBase extends ImplementationBase {
 	 * @return True if the row was found and read; false otherwise
 	 */
 	public boolean Gen_read(SQLiteDatabase db, long id) {
-		Cursor c = db.query(Gen_tableName(), null, "_id = ?", new String[] { Long.toString(id) }, null, null, null);
+		return readColumns(db, id, null);
+	}
+	
+	/**
+	 * Populates only the specified fields of this object from the row in the table for this class
+	 * with the specified id; other fields are left unchanged.  Only the requested columns are read
+	 * from the database, so large columns that aren't needed are not decrypted or copied.
+	 * @param db Database containing table for this class
+	 * @param id Id of the row to read (value of the _id column)
+	 * @param fieldIds GEN_ID_ constants of the fields to read; if none are given, all fields are read
+	 * @return True if the row was found and read; false otherwise
+	 */
+	public boolean Gen_read(SQLiteDatabase db, long id, int... fieldIds) {
+		return readColumns(db, id, Gen_projection(fieldIds));
+	}
+	
+	private boolean readColumns(SQLiteDatabase db, long id, String[] columns) {
+		Cursor c = db.query(Gen_tableName(), columns, "_id = ?", new String[] { Long.toString(id) }, null, null, null);
 		boolean result = false;
 		
 		if (c.moveToFirst())
 		{
-			Gen_populate(c, Gen_columnIndices(c));
+			Gen_populate(c, Gen_cachedColumnIndices(c));
+			if (columns!=null)
+				set_Id(id);
 			result = true;
 		}
 		
@@ -49,28 +169,544 @@ public abstract class IdImplementationBase extends ImplementationBase {
 		return result;
 	}
 	
+	/**
+	 * Read part of a BLOB column of the row for this instance into a caller's buffer.  Only the
+	 * requested range is copied out of the database, so a large blob can be read in pieces through
+	 * one reused buffer rather than all at once, which also requires the whole blob to fit in a
+	 * cursor window.  Leave the column out of Gen_read with field ids to avoid reading it with the row.
+	 * @param db Database containing the table
+	 * @param columnName Name of the BLOB column (GEN_FIELD_ constant)
+	 * @param blobOffset Offset within the blob of the first byte to read
+	 * @param buffer Buffer to read into
+	 * @param offset Offset within the buffer of the first byte read
+	 * @param length Maximum number of bytes to read
+	 * @return Number of bytes read, 0 past the end of the blob, or -1 if there is no row or the value is NULL
+	 * @throws IndexOutOfBoundsException If offset and length don't describe a range within buffer,
+	 * or blobOffset is negative
+	 */
+	public int Gen_readBlob(SQLiteDatabase db, String columnName, long blobOffset, byte[] buffer, int offset, int length) {
+		if (offset<0 || length<0 || length>buffer.length-offset || blobOffset<0)
+			throw new IndexOutOfBoundsException("Can't read "+length+" bytes at "+offset+" into a buffer of "+buffer.length+" bytes from blob offset "+blobOffset);
+		Cursor c = db.rawQuery("SELECT substr("+columnName+", ?, ?) FROM "+Gen_tableName()+" WHERE _id = ?",
+				new String[] { Long.toString(blobOffset+1), Integer.toString(length), Long.toString(get_Id()) });
+		try
+		{
+			if (! c.moveToFirst() || c.isNull(0))
+				return -1;
+			byte[] piece=c.getBlob(0);
+			int count=Math.min(piece.length, length);
+			System.arraycopy(piece, 0, buffer, offset, count);
+			return count;
+		}
+		finally
+		{
+			c.close();
+		}
+	}
+	
+	/**
+	 * @param db Database containing the table
+	 * @param columnName Name of the BLOB column (GEN_FIELD_ constant)
+	 * @return Length in bytes of the column's value in the row for this instance, or -1 if there is
+	 * no row or the value is NULL
+	 */
+	public long Gen_blobLength(SQLiteDatabase db, String columnName) {
+		Cursor c = db.rawQuery("SELECT length("+columnName+") FROM "+Gen_tableName()+" WHERE _id = ?",
+				new String[] { Long.toString(get_Id()) });
+		try
+		{
+			if (! c.moveToFirst() || c.isNull(0))
+				return -1;
+			return c.getLong(0);
+		}
+		finally
+		{
+			c.close();
+		}
+	}
+	
+	/**
+	 * Read a page of rows in _id order, starting after a key.  Because the rows are found through
+	 * the _id index rather than by skipping an OFFSET, reading a page deep in the table is as cheap
+	 * as reading the first one.
+	 * @param db Database containing the table
+	 * @param tableName Name of the table
+	 * @param afterKey Rows with _id greater than this are read; Page.FIRST_KEY for the first page,
+	 * or the getNextKey() of the previous page
+	 * @param pageSize Maximum number of rows in the page; at least 1
+	 * @param instanceGenerator Creates instances to populate
+	 * @return The page that was read
+	 * @throws IllegalArgumentException If pageSize is less than 1
+	 */
+	public static <E extends IdImplementationBase> Page<E> Gen_readPage(SQLiteDatabase db, String tableName, long afterKey, int pageSize, NewInstance<E> instanceGenerator) {
+		return Gen_readPage(db, tableName, null, afterKey, pageSize, instanceGenerator);
+	}
+	
+	/**
+	 * Read a page of rows in _id order, starting after a key, reading only some columns
+	 * @param db Database containing the table
+	 * @param tableName Name of the table
+	 * @param columns Columns to read, as from Gen_projection; null for all columns.  The _id
+	 * column is always read.
+	 * @param afterKey Rows with _id greater than this are read; Page.FIRST_KEY for the first page,
+	 * or the getNextKey() of the previous page
+	 * @param pageSize Maximum number of rows in the page; at least 1
+	 * @param instanceGenerator Creates instances to populate
+	 * @return The page that was read
+	 * @throws IllegalArgumentException If pageSize is less than 1
+	 */
+	public static <E extends IdImplementationBase> Page<E> Gen_readPage(SQLiteDatabase db, String tableName, String[] columns, long afterKey, int pageSize, NewInstance<E> instanceGenerator) {
+		if (pageSize<1)
+			throw new IllegalArgumentException("pageSize must be at least 1, not "+pageSize);
+		if (columns!=null && ! Arrays.asList(columns).contains("_id"))
+		{
+			String[] withId=new String[columns.length+1];
+			withId[0]="_id";
+			System.arraycopy(columns, 0, withId, 1, columns.length);
+			columns=withId;
+		}
+		ArrayList<E> items=new ArrayList<E>(pageSize);
+		long nextKey=afterKey;
+		boolean more=false;
+		// Ask for one extra row to find out if there is another page
+		Cursor c = db.query(tableName, columns, "_id > ?", new String[] { Long.toString(afterKey) }, null, null, "_id", Integer.toString(pageSize+1));
+		try
+		{
+			int[] columnIndices=null;
+			while (c.moveToNext())
+			{
+				if (items.size()==pageSize)
+				{
+					more=true;
+					break;
+				}
+				E instance=instanceGenerator.get();
+				if (columnIndices==null)
+					columnIndices=instance.Gen_cachedColumnIndices(c);
+				instance.Gen_populate(c, columnIndices);
+				items.add(instance);
+				nextKey=instance.get_Id();
+			}
+		}
+		finally
+		{
+			c.close();
+		}
+		return new Page<E>(items, nextKey, more);
+	}
+	
+	/**
+	 * Return the row with the given id from the cache, reading it from the database and adding it
+	 * to the cache if it is not there.  The instance returned may be shared with other callers.
+	 * @param db Database containing the table
+	 * @param id Id of the row to read
+	 * @param cache Cache of rows for the table
+	 * @param instanceGenerator Creates an instance to populate if the row is not cached
+	 * @return The instance for the row, or null if there is no row with that id
+	 */
+	public static <E extends IdImplementationBase> E Gen_readCached(SQLiteDatabase db, long id, EntityCache<E> cache, NewInstance<E> instanceGenerator) {
+		E instance=cache.get(id);
+		if (instance==null)
+		{
+			instance=instanceGenerator.get();
+			if (! instance.Gen_read(db, id))
+				return null;
+			cache.put(instance);
+		}
+		return instance;
+	}
+	
+	/**
+	 * Read the rows with the given ids, in any order.  The ids are read with one query for each
+	 * chunk of ids that fits under SQLite's limit on the number of parameters in a statement.
+	 * Ids that are not found are skipped.
+	 * @param db Database containing the table
+	 * @param tableName Name of the table
+	 * @param ids Ids of the rows to read
+	 * @param collection Receives an instance for each row found
+	 * @param instanceGenerator Creates instances to populate
+	 */
+	public static <E extends IdImplementationBase> void Gen_readAll(SQLiteDatabase db, String tableName, long[] ids, Collection<E> collection, NewInstance<E> instanceGenerator) {
+		Gen_readAll(db, tableName, ids, collection, instanceGenerator, false);
+	}
+	
+	/**
+	 * Read the rows with the given ids.  The ids are read with one query for each
+	 * chunk of ids that fits under SQLite's limit on the number of parameters in a statement.
+	 * Ids that are not found are skipped; an id that appears more than once is read once.
+	 * @param db Database containing the table
+	 * @param tableName Name of the table
+	 * @param ids Ids of the rows to read
+	 * @param collection Receives an instance for each row found
+	 * @param instanceGenerator Creates instances to populate
+	 * @param inInputOrder If true, instances are added to collection in the order of their ids in
+	 * the ids array; otherwise in the order the database returns them
+	 */
+	public static <E extends IdImplementationBase> void Gen_readAll(SQLiteDatabase db, String tableName, long[] ids, Collection<E> collection, NewInstance<E> instanceGenerator, boolean inInputOrder) {
+		// Position in ids of the first occurrence of each id
+		LongIndexMap positions=new LongIndexMap(ids.length);
+		long[] unique=new long[ids.length];
+		int uniqueCount=0;
+		for (int i=0; i<ids.length; i++)
+		{
+			if (positions.get(ids[i])==LongIndexMap.NOT_FOUND)
+			{
+				positions.put(ids[i], i);
+				unique[uniqueCount++]=ids[i];
+			}
+		}
+		ArrayList<E> ordered=null;
+		if (inInputOrder)
+		{
+			ordered=new ArrayList<E>(ids.length);
+			for (int i=0; i<ids.length; i++)
+				ordered.add(null);
+		}
+		int[] columnIndices=null;
+		for (int start=0; start<uniqueCount; start+=MAX_HOST_PARAMETERS)
+		{
+			int count=Math.min(MAX_HOST_PARAMETERS, uniqueCount-start);
+			String[] args=new String[count];
+			for (int i=0; i<count; i++)
+				args[i]=Long.toString(unique[start+i]);
+			Cursor c = db.query(tableName, null, inSelection(count), args, null, null, null);
+			try
+			{
+				while (c.moveToNext())
+				{
+					E instance=instanceGenerator.get();
+					if (columnIndices==null)
+						columnIndices=instance.Gen_cachedColumnIndices(c);
+					instance.Gen_populate(c, columnIndices);
+					if (ordered==null)
+						collection.add(instance);
+					else
+						ordered.set(positions.get(instance.get_Id()), instance);
+				}
+			}
+			finally
+			{
+				c.close();
+			}
+		}
+		if (ordered!=null)
+		{
+			for (E instance : ordered)
+			{
+				if (instance!=null)
+					collection.add(instance);
+			}
+		}
+	}
+	
+	/**
+	 * Maximum number of parameters in one statement, the default SQLITE_MAX_VARIABLE_NUMBER
+	 * for SQLite versions before 3.32
+	 */
+	static final int MAX_HOST_PARAMETERS = 999;
+	
+	private static String fullInSelection;
+	
+	/**
+	 * @param count Number of parameters
+	 * @return Selection for _id IN a list of count parameters
+	 */
+	private static String inSelection(int count) {
+		if (count==MAX_HOST_PARAMETERS && fullInSelection!=null)
+			return fullInSelection;
+		StringBuilder sb=new StringBuilder(count*2+10);
+		sb.append("_id IN (");
+		for (int i=0; i<count; i++)
+		{
+			if (i>0)
+				sb.append(',');
+			sb.append('?');
+		}
+		sb.append(')');
+		String result=sb.toString();
+		if (count==MAX_HOST_PARAMETERS)
+			fullInSelection=result;
+		return result;
+	}
+	
 	/**
 	 * Insert a row in the table with the values of this instance 
 	 * @param db
 	 * @return true if the row was inserted, false otherwise
 	 */
 	public boolean Gen_insert(SQLiteDatabase db) {
-		long id=db.insert(Gen_tableName(),null,removeId(Gen_getValues()));
+		StatementCache statements=Gen_statementCache();
+		if (statements==null)
+		{
+			if (! Gen_assignsId())
+				return insertedId(db.insert(Gen_tableName(),null,Gen_getValues())== -1 ? -1 : get_Id());
+			return insertedId(db.insert(Gen_tableName(),null,removeId(Gen_getValues())));
+		}
+		SQLiteStatement insert=statements.acquire(db, statements.getInsertSql());
+		try
+		{
+			return insertWith(insert);
+		}
+		finally
+		{
+			statements.release(db, statements.getInsertSql(), insert);
+		}
+	}
+	
+	/**
+	 * Insert a row with a compiled INSERT statement from the StatementCache
+	 * @param insert Statement acquired by the caller
+	 * @return true if the row was inserted, false otherwise
+	 */
+	boolean insertWith(SQLiteStatement insert) {
+		int count=Gen_bindValues(insert);
+		boolean assignsId=Gen_assignsId();
+		if (! assignsId)
+			insert.bindLong(count+1, get_Id());
+		long id;
+		try
+		{
+			id=insert.executeInsert();
+			if (! assignsId)
+				id=get_Id();
+		}
+		catch (SQLException sqle)
+		{
+			// Match the behavior of SQLiteDatabase.insert
+			id= -1;
+		}
+		return insertedId(id);
+	}
+	
+	private boolean insertedId(long id) {
 		if (id!= -1)
 		{
 			set_Id(id);
+			Gen_clearDirty();
 			return true;
 		}
 		return false;
 	}
 	
+	/**
+	 * Insert rows for all the entities in a single transaction, setting the _id of each
+	 * entity that was inserted.  Because every transaction commits to the encrypted database file,
+	 * this is much faster than calling Gen_insert for each entity outside of a transaction.
+	 * @param db Database containing table for the entities
+	 * @param entities Entities to insert
+	 * @return Number of rows inserted
+	 */
+	public static <E extends IdImplementationBase> int Gen_insertAll(SQLiteDatabase db, Collection<E> entities) {
+		return Gen_insertAll(db, entities, 0);
+	}
+	
+	/**
+	 * Insert rows for all the entities, committing a transaction after each chunkSize rows.
+	 * Sets the _id of each entity that was inserted.
+	 * @param db Database containing table for the entities
+	 * @param entities Entities to insert
+	 * @param chunkSize Maximum number of rows inserted in each transaction; 0 or less to
+	 * insert all the rows in a single transaction
+	 * @return Number of rows inserted
+	 */
+	public static <E extends IdImplementationBase> int Gen_insertAll(SQLiteDatabase db, Collection<E> entities, int chunkSize) {
+		return writeAll(db, entities, chunkSize, false);
+	}
+	
+	/**
+	 * Insert or update rows for all the entities in a single transaction, as with Gen_upsert
+	 * @param db Database containing table for the entities
+	 * @param entities Entities to write
+	 * @return Number of rows written
+	 */
+	public static <E extends IdImplementationBase> int Gen_upsertAll(SQLiteDatabase db, Collection<E> entities) {
+		return Gen_upsertAll(db, entities, 0);
+	}
+	
+	/**
+	 * Insert or update rows for all the entities as with Gen_upsert, committing a transaction
+	 * after each chunkSize rows
+	 * @param db Database containing table for the entities
+	 * @param entities Entities to write
+	 * @param chunkSize Maximum number of rows written in each transaction; 0 or less to
+	 * write all the rows in a single transaction
+	 * @return Number of rows written
+	 */
+	public static <E extends IdImplementationBase> int Gen_upsertAll(SQLiteDatabase db, Collection<E> entities, int chunkSize) {
+		return writeAll(db, entities, chunkSize, true);
+	}
+	
+	/**
+	 * Insert or upsert all the entities in transactions of chunkSize rows
+	 * @return Number of rows written
+	 */
+	private static <E extends IdImplementationBase> int writeAll(SQLiteDatabase db, Collection<E> entities, int chunkSize, boolean upsert) {
+		int written=0;
+		Iterator<E> i=entities.iterator();
+		while (i.hasNext())
+		{
+			ArrayList<E> chunk=new ArrayList<E>();
+			for (int count=0; i.hasNext() && (chunkSize<=0 || count<chunkSize); count++)
+				chunk.add(i.next());
+			WriteSnapshot snapshot=new WriteSnapshot(chunk);
+			boolean committed=false;
+			try
+			{
+				written+=writeChunk(db, chunk, upsert);
+				committed=true;
+			}
+			finally
+			{
+				if (! committed)
+					snapshot.restore();
+			}
+		}
+		return written;
+	}
+	
+	/**
+	 * Insert or upsert the entities in one transaction
+	 * @return Number of rows written
+	 */
+	private static <E extends IdImplementationBase> int writeChunk(SQLiteDatabase db, ArrayList<E> chunk, boolean upsert) {
+		int written=0;
+		// One compiled statement is kept for the chunk; it is only replaced if the chunk
+		// mixes entities from different tables, or new entities with existing ones when upserting
+		StatementCache statements=null;
+		String sql=null;
+		SQLiteStatement statement=null;
+		db.beginTransaction();
+		try
+		{
+			for (E entity : chunk)
+			{
+				StatementCache entityStatements=entity.Gen_statementCache();
+				String entitySql=null;
+				// An entity without an _id is inserted and gets one assigned, like Gen_upsert does
+				boolean insert=! upsert || ! entity.Gen_hasId();
+				if (entityStatements!=null)
+					entitySql=insert ? entityStatements.getInsertSql() : entityStatements.getUpsertSql();
+				boolean result;
+				if (entitySql==null)
+				{
+					result=insert ? entity.Gen_insert(db) : entity.Gen_upsert(db);
+				}
+				else
+				{
+					if (entityStatements!=statements || ! entitySql.equals(sql))
+					{
+						if (statement!=null)
+							statements.release(db, sql, statement);
+						statement=null;
+						statements=entityStatements;
+						sql=entitySql;
+						statement=statements.acquire(db, sql);
+					}
+					result=insert ? entity.insertWith(statement) : entity.upsertWith(statement);
+				}
+				if (result)
+					written++;
+			}
+			db.setTransactionSuccessful();
+		}
+		finally
+		{
+			if (statement!=null)
+				statements.release(db, sql, statement);
+			db.endTransaction();
+		}
+		return written;
+	}
+	
+	/**
+	 * Insert a row for this instance with its current _id, or if there is already a row with that
+	 * _id, update it with the values of this instance; one statement either way.  If the instance
+	 * has no _id yet (Gen_hasId is false), it is inserted as with Gen_insert and the _id the
+	 * database assigns is set on it.
+	 * <p>
+	 * Uses INSERT ... ON CONFLICT(_id) DO UPDATE, which requires SQLite 3.24 or later (SQLCipher 4).
+	 * Classes generated by older versions of the plugin use INSERT OR REPLACE instead, which
+	 * deletes and re-inserts a conflicting row.
+	 * @param db
+	 * @return true if the row was written, false otherwise
+	 */
+	public boolean Gen_upsert(SQLiteDatabase db) {
+		if (! Gen_hasId())
+			return Gen_insert(db);
+		StatementCache statements=Gen_statementCache();
+		String sql=statements==null ? null : statements.getUpsertSql();
+		if (sql==null)
+		{
+			invalidateCached();
+			if (db.replace(Gen_tableName(), null, Gen_getValues())== -1)
+				return false;
+			Gen_clearDirty();
+			return true;
+		}
+		SQLiteStatement upsert=statements.acquire(db, sql);
+		try
+		{
+			return upsertWith(upsert);
+		}
+		finally
+		{
+			statements.release(db, sql, upsert);
+		}
+	}
+	
+	/**
+	 * Write the row with a compiled upsert statement from the StatementCache
+	 * @param upsert Statement acquired by the caller
+	 * @return true if the row was written, false otherwise
+	 */
+	boolean upsertWith(SQLiteStatement upsert) {
+		if (! Gen_hasId())
+			throw new IllegalStateException("Upsert of "+Gen_tableName()+" instance without an _id");
+		invalidateCached();
+		upsert.bindLong(Gen_bindValues(upsert)+1, get_Id());
+		try
+		{
+			upsert.executeInsert();
+		}
+		catch (SQLException sqle)
+		{
+			return false;
+		}
+		Gen_clearDirty();
+		return true;
+	}
+	
+	/**
+	 * Remove the row for this instance from the table's EntityCache, if any
+	 */
+	private void invalidateCached() {
+		EntityCache<?> cache=Gen_entityCache();
+		if (cache!=null)
+			cache.remove(get_Id());
+	}
+	
 	/**
 	 * Delete the row in the table corresponding to this instance
 	 * @param db
 	 * @return Number of rows deleted
 	 */
 	public int Gen_delete(SQLiteDatabase db) {
-		return db.delete(Gen_tableName(), "_id = ?", new String[] { Long.toString(get_Id()) });
+		invalidateCached();
+		StatementCache statements=Gen_statementCache();
+		if (statements==null)
+		{
+			return db.delete(Gen_tableName(), "_id = ?", new String[] { Long.toString(get_Id()) });
+		}
+		SQLiteStatement delete=statements.acquire(db, statements.getDeleteSql());
+		try
+		{
+			delete.bindLong(1, get_Id());
+			return delete.executeUpdateDelete();
+		}
+		finally
+		{
+			statements.release(db, statements.getDeleteSql(), delete);
+		}
 	}
 	
 	/**
@@ -79,6 +715,59 @@ public abstract class IdImplementationBase extends ImplementationBase {
 	 * @return Number of rows updated
 	 */
 	public int Gen_update(SQLiteDatabase db) {
-		return db.update(Gen_tableName(), removeId(Gen_getValues()), "_id = ?", new String[] { Long.toString(get_Id()) });
+		invalidateCached();
+		StatementCache statements=Gen_statementCache();
+		int result;
+		if (statements==null)
+		{
+			result=db.update(Gen_tableName(), removeId(Gen_getValues()), "_id = ?", new String[] { Long.toString(get_Id()) });
+		}
+		else
+		{
+			SQLiteStatement update=statements.acquire(db, statements.getUpdateSql());
+			try
+			{
+				update.bindLong(Gen_bindValues(update)+1, get_Id());
+				result=update.executeUpdateDelete();
+			}
+			finally
+			{
+				statements.release(db, statements.getUpdateSql(), update);
+			}
+		}
+		Gen_clearDirty();
+		return result;
+	}
+	
+	/**
+	 * Update only the columns for fields that have been changed by a setter since this instance
+	 * was last read or written.  If no fields have changed, nothing is written and 0 is returned;
+	 * if the generated class doesn't track changes, this is the same as Gen_update.
+	 * @param db
+	 * @return Number of rows updated
+	 */
+	public int Gen_updateChanged(SQLiteDatabase db) {
+		long dirty=Gen_dirtyMask();
+		StatementCache statements=Gen_statementCache();
+		String[] columnNames=Gen_columnNames();
+		if (dirty==ALL_FIELDS || statements==null || columnNames==null)
+			return Gen_update(db);
+		if (dirty==0)
+			return 0;
+		invalidateCached();
+		String sql=statements.getUpdateSql(Gen_tableName(), columnNames, dirty);
+		SQLiteStatement update=statements.acquire(db, sql);
+		int result;
+		try
+		{
+			update.bindLong(Gen_bindValues(update, dirty)+1, get_Id());
+			result=update.executeUpdateDelete();
+		}
+		finally
+		{
+			statements.release(db, sql, update);
+		}
+		Gen_clearDirty();
+		return result;
 	}
 }
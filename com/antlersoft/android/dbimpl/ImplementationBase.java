@@ -38,6 +38,65 @@ public abstract class ImplementationBase {
      */
 	public abstract int[] Gen_columnIndices(Cursor cursor);
 	
+	/**
+	 * Return the cache of column indices for this table.  Classes generated by older versions
+	 * of the plugin don't override this.
+	 * @return ColumnIndicesCache for this table, or null if there is none
+	 */
+	public ColumnIndicesCache Gen_columnIndicesCache() {
+		return null;
+	}
+	
+	/**
+	 * Return an array that gives the column index in the cursor for each field defined, from the
+	 * table's ColumnIndicesCache if there is one.  The array may be shared, so it must not be modified.
+	 * @param cursor Database cursor over some columns, possibly including this table
+	 * @return array of column indices; -1 if the column with that id is not in cursor
+	 */
+	public int[] Gen_cachedColumnIndices(Cursor cursor) {
+		ColumnIndicesCache cache=Gen_columnIndicesCache();
+		if (cache==null)
+			return Gen_columnIndices(cursor);
+		return cache.get(cursor, this);
+	}
+	
+	/**
+	 * Return the names of the columns of this table, indexed by the GEN_ID_ constants of the
+	 * generated class.  Classes generated by older versions of the plugin don't override this.
+	 * The array is shared, so this is protected to keep it from callers outside the generated
+	 * classes and this package; others use the generated Gen_columns, which returns a copy.
+	 * @return Column names, or null if they are not available
+	 */
+	protected String[] Gen_columnNames() {
+		return null;
+	}
+	
+	/**
+	 * Return a projection that selects only some of the columns of this table
+	 * @param fieldIds GEN_ID_ constants of the fields to select
+	 * @return Column names for the fields, or null (select all columns) if the column names are not
+	 * available or no fields are specified
+	 */
+	public String[] Gen_projection(int... fieldIds) {
+		return projection(Gen_columnNames(), fieldIds);
+	}
+	
+	/**
+	 * Return a projection that selects only some of the columns of a table
+	 * @param columnNames Names of all the columns of the table, indexed by the GEN_ID_ constants
+	 * @param fieldIds GEN_ID_ constants of the fields to select
+	 * @return Column names for the fields, or null (select all columns) if columnNames is null or
+	 * no fields are specified
+	 */
+	public static String[] projection(String[] columnNames, int... fieldIds) {
+		if (columnNames==null || fieldIds==null || fieldIds.length==0)
+			return null;
+		String[] result=new String[fieldIds.length];
+		for (int i=0; i<fieldIds.length; i++)
+			result[i]=columnNames[fieldIds[i]];
+		return result;
+	}
+	
 	public static <E extends ImplementationBase> void Gen_populateFromCursor(
 			Cursor c,
 			Collection<E> collection,
@@ -47,7 +106,7 @@ public abstract class ImplementationBase {
 		if ( c.moveToFirst())
 		{
 			E instance=instanceGenerator.get();
-			int[] columnIndices=instance.Gen_columnIndices(c);
+			int[] columnIndices=instance.Gen_cachedColumnIndices(c);
 			do
 			{
 				if (instance == null)
@@ -68,7 +127,26 @@ public abstract class ImplementationBase {
 			Collection<E> collection,
 			NewInstance<E> instanceGenerator)
 	{
-		Cursor c = database.query(tableName,null,null,null,null,null,null);
+		getAll(database,tableName,null,collection,instanceGenerator);
+	}
+	
+	/**
+	 * Read the specified columns of all the rows of a table; fields for other columns are not
+	 * populated
+	 * @param database Database containing the table
+	 * @param tableName Name of the table
+	 * @param columns Columns to read, as from Gen_projection; null for all columns
+	 * @param collection Receives an instance for each row
+	 * @param instanceGenerator Creates instances to populate
+	 */
+	public static <E extends ImplementationBase> void getAll(
+			SQLiteDatabase database,
+			String tableName,
+			String[] columns,
+			Collection<E> collection,
+			NewInstance<E> instanceGenerator)
+	{
+		Cursor c = database.query(tableName,columns,null,null,null,null,null);
 		try
 		{
 			Gen_populateFromCursor(c,collection,instanceGenerator);
@@ -78,4 +156,50 @@ public abstract class ImplementationBase {
 			c.close();
 		}
 	}
+	
+	/**
+	 * Iterate over all the rows of a table, populating an instance for each row only as it is reached
+	 * @param database Database containing the table
+	 * @param tableName Name of the table
+	 * @param instanceGenerator Creates instances to populate
+	 * @param flyweight If true, the same instance is populated and returned for every row
+	 * @return Iterator over the rows; must be closed if not iterated to the end
+	 */
+	public static <E extends ImplementationBase> CursorIterator<E> iterateAll(
+			SQLiteDatabase database,
+			String tableName,
+			NewInstance<E> instanceGenerator,
+			boolean flyweight)
+	{
+		return iterateAll(database,tableName,null,instanceGenerator,flyweight);
+	}
+	
+	/**
+	 * Iterate over the specified columns of all the rows of a table; fields for other columns are
+	 * not populated
+	 * @param database Database containing the table
+	 * @param tableName Name of the table
+	 * @param columns Columns to read, as from Gen_projection; null for all columns
+	 * @param instanceGenerator Creates instances to populate
+	 * @param flyweight If true, the same instance is populated and returned for every row
+	 * @return Iterator over the rows; must be closed if not iterated to the end
+	 */
+	public static <E extends ImplementationBase> CursorIterator<E> iterateAll(
+			SQLiteDatabase database,
+			String tableName,
+			String[] columns,
+			NewInstance<E> instanceGenerator,
+			boolean flyweight)
+	{
+		Cursor c = database.query(tableName,columns,null,null,null,null,null);
+		try
+		{
+			return new CursorIterator<E>(c,instanceGenerator,flyweight);
+		}
+		catch (RuntimeException re)
+		{
+			c.close();
+			throw re;
+		}
+	}
 }
@@ -0,0 +1,19 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+/**
+ * Converts values of a field's Java type to and from a long, so the field is stored
+ * as an INTEGER and bound and read with its native type.  Named with the Converter
+ * element of FieldAccessor, with Type=FieldType.INTEGER; the generated class keeps one instance,
+ * so implementations need a public no-argument constructor and must be thread-safe.
+ * <p>
+ * Null values are stored as NULL without calling the converter.
+ * @author Michael A. MacDonald
+ *
+ */
+public interface LongConverter<T> {
+	public long toLong(T value);
+	public T fromLong(long stored);
+}
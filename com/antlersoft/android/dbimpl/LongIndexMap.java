@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from primitive long keys (such as _id values) to non-negative int values (such as
+ * positions in an array), without boxing either.  Uses open addressing with linear probing.
+ * <p>
+ * Not synchronized.
+ * 
+ * @author Michael A. MacDonald
+ *
+ */
+public class LongIndexMap {
+	/**
+	 * Value returned by get for a key that is not in the map
+	 */
+	public static final int NOT_FOUND = -1;
+	
+	private long[] keys;
+	/** NOT_FOUND marks an empty slot */
+	private int[] values;
+	private int size;
+	private int mask;
+	private int shift;
+	
+	public LongIndexMap()
+	{
+		this(8);
+	}
+	
+	/**
+	 * @param expectedSize Number of keys the map can hold without growing
+	 */
+	public LongIndexMap(int expectedSize)
+	{
+		int capacity=8;
+		// Keep the table no more than half full
+		while (capacity<expectedSize*2)
+			capacity<<=1;
+		allocate(capacity);
+	}
+	
+	/**
+	 * @param key
+	 * @return Value for the key, or NOT_FOUND if the key is not in the map
+	 */
+	public int get(long key)
+	{
+		for (int slot=slot(key); values[slot]!=NOT_FOUND; slot=(slot+1)&mask)
+		{
+			if (keys[slot]==key)
+				return values[slot];
+		}
+		return NOT_FOUND;
+	}
+	
+	/**
+	 * Set the value for a key
+	 * @param key
+	 * @param value Non-negative value
+	 * @return The previous value for the key, or NOT_FOUND if the key was not in the map
+	 */
+	public int put(long key, int value)
+	{
+		if (value<0)
+			throw new IllegalArgumentException("LongIndexMap values must not be negative");
+		int slot=slot(key);
+		for (; values[slot]!=NOT_FOUND; slot=(slot+1)&mask)
+		{
+			if (keys[slot]==key)
+			{
+				int previous=values[slot];
+				values[slot]=value;
+				return previous;
+			}
+		}
+		keys[slot]=key;
+		values[slot]=value;
+		if (++size*2>keys.length)
+			grow();
+		return NOT_FOUND;
+	}
+	
+	/**
+	 * Remove a key from the map
+	 * @param key
+	 * @return The value the key had, or NOT_FOUND if the key was not in the map
+	 */
+	public int remove(long key)
+	{
+		int slot=slot(key);
+		for (; values[slot]!=NOT_FOUND; slot=(slot+1)&mask)
+		{
+			if (keys[slot]==key)
+			{
+				int previous=values[slot];
+				closeGap(slot);
+				size--;
+				return previous;
+			}
+		}
+		return NOT_FOUND;
+	}
+	
+	public int size()
+	{
+		return size;
+	}
+	
+	public void clear()
+	{
+		Arrays.fill(values, NOT_FOUND);
+		size=0;
+	}
+	
+	/**
+	 * Empty a slot, moving later entries in the same probe sequence back so they can
+	 * still be found
+	 */
+	private void closeGap(int gap)
+	{
+		int slot=gap;
+		while (true)
+		{
+			slot=(slot+1)&mask;
+			if (values[slot]==NOT_FOUND)
+				break;
+			int home=slot(keys[slot]);
+			// Move the entry into the gap unless its home slot lies cyclically in (gap, slot]
+			if (gap<=slot ? (home<=gap || home>slot) : (home<=gap && home>slot))
+			{
+				keys[gap]=keys[slot];
+				values[gap]=values[slot];
+				gap=slot;
+			}
+		}
+		values[gap]=NOT_FOUND;
+	}
+	
+	private int slot(long key)
+	{
+		return (int)((key*0x9E3779B97F4A7C15L)>>>shift);
+	}
+	
+	private void allocate(int capacity)
+	{
+		keys=new long[capacity];
+		values=new int[capacity];
+		Arrays.fill(values, NOT_FOUND);
+		mask=capacity-1;
+		shift=64-Integer.numberOfTrailingZeros(capacity);
+	}
+	
+	private void grow()
+	{
+		long[] oldKeys=keys;
+		int[] oldValues=values;
+		allocate(keys.length*2);
+		for (int i=0; i<oldKeys.length; i++)
+		{
+			if (oldValues[i]!=NOT_FOUND)
+			{
+				int slot=slot(oldKeys[i]);
+				while (values[slot]!=NOT_FOUND)
+					slot=(slot+1)&mask;
+				keys[slot]=oldKeys[i];
+				values[slot]=oldValues[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import android.database.Cursor;
+
+import net.sqlcipher.database.SQLiteDatabase;
+
+/**
+ * Numeric columns of many rows read into primitive arrays, one array per column, in one pass over
+ * a cursor with no objects allocated per row.  For aggregating a few columns over many rows without
+ * populating an instance for each.
+ * <p>
+ * Each column is read as an int[], long[] or double[] according to its kind; the generated
+ * GEN_NUMERIC_KINDS gives the kind of each field of a table.  NULL is read as 0.
+ *
+ * @author Michael A. MacDonald
+ *
+ */
+public class NumericColumns {
+	/** Kind of a column that can't be read into a primitive array */
+	public static final int NOT_NUMERIC = 0;
+	public static final int INT = 1;
+	public static final int LONG = 2;
+	public static final int DOUBLE = 3;
+
+	static final int INITIAL_CAPACITY = 64;
+
+	private final int[] kinds;
+	private final int[][] ints;
+	private final long[][] longs;
+	private final double[][] doubles;
+	private int size;
+
+	/**
+	 * @param kinds Kind of each column, in the order of the cursor's columns
+	 * @param capacity Number of rows to allow for initially
+	 */
+	NumericColumns(int[] kinds, int capacity)
+	{
+		this.kinds=kinds.clone();
+		ints=new int[kinds.length][];
+		longs=new long[kinds.length][];
+		doubles=new double[kinds.length][];
+		for (int i=0; i<kinds.length; i++)
+		{
+			switch (kinds[i])
+			{
+			case INT :
+				ints[i]=new int[capacity];
+				break;
+			case LONG :
+				longs[i]=new long[capacity];
+				break;
+			case DOUBLE :
+				doubles[i]=new double[capacity];
+				break;
+			default :
+				throw new IllegalArgumentException("Column "+i+" is not numeric");
+			}
+		}
+	}
+
+	/**
+	 * Read the specified numeric fields of the selected rows of a table
+	 * @param db Database containing the table
+	 * @param tableName Name of the table
+	 * @param columnNames Names of all the columns of the table, indexed by the GEN_ID_ constants (GEN_COLUMNS)
+	 * @param columnKinds Kinds of all the columns of the table (GEN_NUMERIC_KINDS)
+	 * @param selection WHERE clause, or null for all rows
+	 * @param selectionArgs Arguments for the selection
+	 * @param fieldIds GEN_ID_ constants of the fields to read; column i of the result is fieldIds[i]
+	 * @return The columns read
+	 * @throws IllegalArgumentException If one of the fields is not numeric
+	 */
+	public static NumericColumns read(SQLiteDatabase db, String tableName, String[] columnNames, int[] columnKinds,
+			String selection, String[] selectionArgs, int... fieldIds)
+	{
+		int[] kinds=new int[fieldIds.length];
+		for (int i=0; i<fieldIds.length; i++)
+		{
+			kinds[i]=columnKinds[fieldIds[i]];
+			if (kinds[i]==NOT_NUMERIC)
+				throw new IllegalArgumentException(columnNames[fieldIds[i]]+" is not numeric");
+		}
+		Cursor c=db.query(tableName, ImplementationBase.projection(columnNames, fieldIds), selection, selectionArgs, null, null, null);
+		try
+		{
+			return read(c, kinds);
+		}
+		finally
+		{
+			c.close();
+		}
+	}
+
+	/**
+	 * Read all the rows of a cursor, from the first
+	 * @param cursor Cursor whose columns have the given kinds
+	 * @param kinds Kind of each column of the cursor
+	 * @return The columns read
+	 */
+	public static NumericColumns read(Cursor cursor, int[] kinds)
+	{
+		int count=cursor.getCount();
+		NumericColumns result=new NumericColumns(kinds, count>0 ? count : INITIAL_CAPACITY);
+		if (cursor.moveToFirst())
+		{
+			do
+			{
+				result.addRow(cursor);
+			}
+			while (cursor.moveToNext());
+		}
+		result.trim();
+		return result;
+	}
+
+	private void addRow(Cursor cursor)
+	{
+		if (size==capacity())
+			grow();
+		for (int i=0; i<kinds.length; i++)
+		{
+			switch (kinds[i])
+			{
+			case INT :
+				ints[i][size]=cursor.getInt(i);
+				break;
+			case LONG :
+				longs[i][size]=cursor.getLong(i);
+				break;
+			default :
+				doubles[i][size]=cursor.getDouble(i);
+			}
+		}
+		size++;
+	}
+
+	private int capacity()
+	{
+		switch (kinds.length==0 ? NOT_NUMERIC : kinds[0])
+		{
+		case INT :
+			return ints[0].length;
+		case LONG :
+			return longs[0].length;
+		case DOUBLE :
+			return doubles[0].length;
+		default :
+			return Integer.MAX_VALUE;
+		}
+	}
+
+	private void grow()
+	{
+		resize(Math.max(INITIAL_CAPACITY, size*2));
+	}
+
+	private void trim()
+	{
+		if (size<capacity())
+			resize(size);
+	}
+
+	private void resize(int capacity)
+	{
+		for (int i=0; i<kinds.length; i++)
+		{
+			switch (kinds[i])
+			{
+			case INT :
+				int[] newInts=new int[capacity];
+				System.arraycopy(ints[i], 0, newInts, 0, size);
+				ints[i]=newInts;
+				break;
+			case LONG :
+				long[] newLongs=new long[capacity];
+				System.arraycopy(longs[i], 0, newLongs, 0, size);
+				longs[i]=newLongs;
+				break;
+			default :
+				double[] newDoubles=new double[capacity];
+				System.arraycopy(doubles[i], 0, newDoubles, 0, size);
+				doubles[i]=newDoubles;
+			}
+		}
+	}
+
+	/**
+	 * @return Number of rows read; the length of each array
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @param column Index of the column in the order it was requested
+	 * @return Values of an INT column
+	 * @throws IllegalArgumentException If the column is not an INT column
+	 */
+	public int[] getInts(int column)
+	{
+		checkKind(column, INT);
+		return ints[column];
+	}
+
+	/**
+	 * @param column Index of the column in the order it was requested
+	 * @return Values of a LONG column
+	 * @throws IllegalArgumentException If the column is not a LONG column
+	 */
+	public long[] getLongs(int column)
+	{
+		checkKind(column, LONG);
+		return longs[column];
+	}
+
+	/**
+	 * @param column Index of the column in the order it was requested
+	 * @return Values of a DOUBLE column
+	 * @throws IllegalArgumentException If the column is not a DOUBLE column
+	 */
+	public double[] getDoubles(int column)
+	{
+		checkKind(column, DOUBLE);
+		return doubles[column];
+	}
+
+	private void checkKind(int column, int kind)
+	{
+		if (kinds[column]!=kind)
+			throw new IllegalArgumentException("Column "+column+" is not of kind "+kind);
+	}
+}
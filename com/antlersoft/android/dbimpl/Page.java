@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of rows read in _id order by IdImplementationBase.Gen_readPage, with the key
+ * from which to read the next page.
+ * 
+ * @author Michael A. MacDonald
+ *
+ */
+public class Page<E extends IdImplementationBase> {
+	/**
+	 * Key to pass to Gen_readPage to read the first page
+	 */
+	public static final long FIRST_KEY = Long.MIN_VALUE;
+	
+	private ArrayList<E> items;
+	private long nextKey;
+	private boolean more;
+	
+	Page(ArrayList<E> items, long nextKey, boolean more)
+	{
+		this.items=items;
+		this.nextKey=nextKey;
+		this.more=more;
+	}
+	
+	/**
+	 * @return The rows in this page, in _id order
+	 */
+	public List<E> getItems()
+	{
+		return items;
+	}
+	
+	/**
+	 * @return Key to pass to Gen_readPage to read the page after this one; the _id of the
+	 * last row in this page
+	 */
+	public long getNextKey()
+	{
+		return nextKey;
+	}
+	
+	/**
+	 * @return True if there are rows after this page
+	 */
+	public boolean hasMore()
+	{
+		return more;
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.Collection;
+
+import android.database.Cursor;
+
+/**
+ * Maps cursor rows onto instances of a table's class without needing an instance to resolve
+ * the column indices.  The generated class has one as GEN_ROW_MAPPER; it holds no state but
+ * the table's ColumnIndicesCache, so it can be shared by any number of threads and cursors.
+ * 
+ * @author Michael A. MacDonald
+ *
+ */
+public abstract class RowMapper<E extends ImplementationBase> {
+	private final ColumnIndicesCache cache;
+	
+	/**
+	 * @param cache Cache of column indices for the table, or null to compute them for every cursor
+	 */
+	protected RowMapper(ColumnIndicesCache cache)
+	{
+		this.cache=cache;
+	}
+	
+	/**
+	 * Compute the column index in the cursor for each field defined
+	 * @param cursor Database cursor over some columns, possibly including this table
+	 * @return array of column indices; -1 if the column with that id is not in cursor
+	 */
+	public abstract int[] computeColumnIndices(Cursor cursor);
+	
+	/**
+	 * Return the column index in the cursor for each field defined, from the cache if the
+	 * cursor's layout has been seen.  The array may be shared, so it must not be modified.
+	 * @param cursor Database cursor over some columns, possibly including this table
+	 * @return array of column indices; -1 if the column with that id is not in cursor
+	 */
+	public int[] getColumnIndices(Cursor cursor)
+	{
+		if (cache==null)
+			return computeColumnIndices(cursor);
+		return cache.get(cursor, this);
+	}
+	
+	/**
+	 * Populate an instance from the current row of a cursor
+	 * @param cursor Cursor positioned on a row
+	 * @param columnIndices Column indices from getColumnIndices for the cursor
+	 * @param instance Instance to populate
+	 * @return instance
+	 */
+	public <T extends E> T map(Cursor cursor, int[] columnIndices, T instance)
+	{
+		instance.Gen_populate(cursor, columnIndices);
+		return instance;
+	}
+	
+	/**
+	 * Populate an instance from the current row of a cursor.  When mapping many rows, get the
+	 * column indices once and call map with them instead.
+	 * @param cursor Cursor positioned on a row
+	 * @param instance Instance to populate
+	 * @return instance
+	 */
+	public <T extends E> T map(Cursor cursor, T instance)
+	{
+		return map(cursor, getColumnIndices(cursor), instance);
+	}
+	
+	/**
+	 * Populate a new instance for each row of a cursor, from the first row
+	 * @param cursor Cursor over the rows
+	 * @param collection Receives an instance for each row
+	 * @param instanceGenerator Creates the instances
+	 */
+	public <T extends E> void mapAll(Cursor cursor, Collection<? super T> collection, NewInstance<T> instanceGenerator)
+	{
+		if (cursor.moveToFirst())
+		{
+			int[] columnIndices=getColumnIndices(cursor);
+			do
+			{
+				collection.add(map(cursor, columnIndices, instanceGenerator.get()));
+			}
+			while (cursor.moveToNext());
+		}
+	}
+}
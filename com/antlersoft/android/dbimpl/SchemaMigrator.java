@@ -0,0 +1,278 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+
+import android.database.Cursor;
+import android.database.SQLException;
+
+import net.sqlcipher.database.SQLiteDatabase;
+
+/**
+ * Brings a table up to date with its generated definition without copying it.
+ * <p>
+ * The schema version generated for each table (GEN_SCHEMA_VERSION) is a fingerprint of its
+ * CREATE TABLE and CREATE INDEX statements, and is recorded in the GEN_SCHEMA table when the
+ * table is migrated.  If the recorded version matches, migrate does nothing more than
+ * one lookup.  Otherwise it compares the live table (PRAGMA table_info) with the generated
+ * column definitions and adds the missing columns with ALTER TABLE ... ADD COLUMN,
+ * creates missing indexes and drops generated indexes that are no longer declared.
+ * <p>
+ * Columns that are no longer declared are left in place.  Changes to the type, NOT NULL, default
+ * value or primary key of an existing column can't be applied without a table rebuild, which is
+ * what this avoids; if the live table differs from the declared definition in any of them,
+ * migrate throws SQLException describing the differences, changes nothing and doesn't record the
+ * new version.  A new column must be one that ADD COLUMN accepts: it can't be part of the primary
+ * key or UNIQUE, and if it is NOT NULL it needs a DefaultValue.
+ *
+ * @author Michael A. MacDonald
+ *
+ */
+public class SchemaMigrator {
+	/**
+	 * Table recording the schema version each table was last migrated to
+	 */
+	public static final String SCHEMA_TABLE = "GEN_SCHEMA";
+
+	/**
+	 * Returned by getVersion for a table that has never been migrated
+	 */
+	public static final long NOT_MIGRATED = -1L;
+
+	static final String CREATE_SCHEMA_TABLE = "CREATE TABLE IF NOT EXISTS "+SCHEMA_TABLE+
+		" (TABLE_NAME TEXT PRIMARY KEY, VERSION INTEGER NOT NULL)";
+
+	/**
+	 * Create or update a table to match its generated definition, in one transaction
+	 * @param db Database containing the table
+	 * @param tableName Name of the table (GEN_TABLE_NAME)
+	 * @param createSql Statement that creates the table (GEN_CREATE)
+	 * @param columnDefinitions Definitions of each column as they appear in createSql (GEN_COLUMN_DEFINITIONS)
+	 * @param createIndexes Statements that create the table's indexes (GEN_CREATE_INDEXES)
+	 * @param version Schema version of the definition (GEN_SCHEMA_VERSION)
+	 * @return true if the table was created or changed, false if it was already up to date
+	 * @throws SQLException If an existing column differs from its definition in a way that needs a
+	 * table rebuild
+	 */
+	public static boolean migrate(SQLiteDatabase db, String tableName, String createSql, String[] columnDefinitions,
+			String[] createIndexes, long version)
+	{
+		db.beginTransaction();
+		try
+		{
+			db.execSQL(CREATE_SCHEMA_TABLE);
+			// A version that happens to equal NOT_MIGRATED is checked against the live table each time
+			if (version!=NOT_MIGRATED && getVersion(db, tableName)==version)
+			{
+				db.setTransactionSuccessful();
+				return false;
+			}
+			HashMap<String,LiveColumn> columns=getColumns(db, tableName);
+			if (columns.isEmpty())
+			{
+				db.execSQL(createSql);
+			}
+			else
+			{
+				HashSet<String> keyColumns=primaryKeyColumns(createSql);
+				StringBuilder differences=new StringBuilder();
+				for (String definition : columnDefinitions)
+				{
+					String name=columnName(definition);
+					LiveColumn live=columns.get(name);
+					String difference=live==null ? null : live.difference(definition, keyColumns.contains(name));
+					if (difference!=null)
+						differences.append(differences.length()==0 ? "" : "; ").append(name).append(' ').append(difference);
+				}
+				if (differences.length()>0)
+					throw new SQLException("Can't migrate "+tableName+" without rebuilding it: "+differences);
+				for (String definition : columnDefinitions)
+				{
+					if (! columns.containsKey(columnName(definition)))
+						db.execSQL("ALTER TABLE "+tableName+" ADD COLUMN "+definition);
+				}
+			}
+			updateIndexes(db, tableName, createIndexes);
+			db.execSQL("INSERT OR REPLACE INTO "+SCHEMA_TABLE+" (TABLE_NAME, VERSION) VALUES (?, ?)",
+					new Object[] { tableName.toUpperCase(Locale.US), Long.valueOf(version) });
+			db.setTransactionSuccessful();
+			return true;
+		}
+		finally
+		{
+			db.endTransaction();
+		}
+	}
+
+	/**
+	 * @param db
+	 * @param tableName
+	 * @return The schema version the table was last migrated to, or NOT_MIGRATED if it has never
+	 * been migrated
+	 */
+	public static long getVersion(SQLiteDatabase db, String tableName)
+	{
+		Cursor c=db.rawQuery("SELECT VERSION FROM "+SCHEMA_TABLE+" WHERE TABLE_NAME = ?",
+				new String[] { tableName.toUpperCase(Locale.US) });
+		try
+		{
+			return c.moveToFirst() ? c.getLong(0) : NOT_MIGRATED;
+		}
+		finally
+		{
+			c.close();
+		}
+	}
+
+	/**
+	 * A column of the live table, as PRAGMA table_info describes it
+	 */
+	static class LiveColumn {
+		String type;
+		boolean notNull;
+		/** Text of the DEFAULT expression, or null if there is none */
+		String defaultValue;
+		boolean primaryKey;
+
+		LiveColumn(String type, boolean notNull, String defaultValue, boolean primaryKey)
+		{
+			this.type=type;
+			this.notNull=notNull;
+			this.defaultValue=defaultValue;
+			this.primaryKey=primaryKey;
+		}
+
+		/**
+		 * @param definition Generated definition of the column: name, type, then NOT NULL, DEFAULT
+		 * or PRIMARY KEY
+		 * @param declaredKey True if the table's PRIMARY KEY constraint names the column
+		 * @return Description of how the column differs from the definition, or null if it matches
+		 */
+		String difference(String definition, boolean declaredKey)
+		{
+			String trimmed=definition.trim();
+			int defaultStart=trimmed.toUpperCase(Locale.US).indexOf(" DEFAULT ");
+			String constraints=(defaultStart<0 ? trimmed : trimmed.substring(0, defaultStart)).toUpperCase(Locale.US);
+			String declaredDefault=defaultStart<0 ? null : trimmed.substring(defaultStart+9).trim();
+			String[] words=constraints.split(" +");
+			String declaredType=words.length>1 ? words[1] : "";
+			boolean declaredNotNull=constraints.indexOf(" NOT NULL")>=0;
+			declaredKey=declaredKey || constraints.indexOf(" PRIMARY KEY")>=0;
+			if (! declaredType.equalsIgnoreCase(type))
+				return "is "+type+", declared "+declaredType;
+			if (declaredNotNull!=notNull)
+				return declaredNotNull ? "allows NULL, declared NOT NULL" : "is NOT NULL, declared nullable";
+			if (declaredDefault==null ? defaultValue!=null : ! declaredDefault.equals(defaultValue))
+				return "has DEFAULT "+defaultValue+", declared "+declaredDefault;
+			if (declaredKey!=primaryKey)
+				return declaredKey ? "is not in the primary key, declared in it" : "is in the primary key, declared not in it";
+			return null;
+		}
+	}
+
+	/**
+	 * @return Columns of the live table by upper-case name; empty if the table does not exist
+	 */
+	private static HashMap<String,LiveColumn> getColumns(SQLiteDatabase db, String tableName)
+	{
+		HashMap<String,LiveColumn> result=new HashMap<String,LiveColumn>();
+		Cursor c=db.rawQuery("PRAGMA table_info("+tableName+")", (String[])null);
+		try
+		{
+			int nameIndex=c.getColumnIndex("name");
+			int typeIndex=c.getColumnIndex("type");
+			int notNullIndex=c.getColumnIndex("notnull");
+			int defaultIndex=c.getColumnIndex("dflt_value");
+			int keyIndex=c.getColumnIndex("pk");
+			while (c.moveToNext())
+			{
+				result.put(c.getString(nameIndex).toUpperCase(Locale.US), new LiveColumn(c.getString(typeIndex),
+						c.getInt(notNullIndex)!=0, c.isNull(defaultIndex) ? null : c.getString(defaultIndex), c.getInt(keyIndex)!=0));
+			}
+		}
+		finally
+		{
+			c.close();
+		}
+		return result;
+	}
+
+	/**
+	 * Create the declared indexes, and drop indexes that follow the generated naming
+	 * (TABLE_..._IDX) but are no longer declared
+	 */
+	private static void updateIndexes(SQLiteDatabase db, String tableName, String[] createIndexes)
+	{
+		HashSet<String> declared=new HashSet<String>();
+		for (String sql : createIndexes)
+			declared.add(indexName(sql));
+		String prefix=tableName.toUpperCase(Locale.US)+"_";
+		HashSet<String> obsolete=new HashSet<String>();
+		// Indexes created automatically for constraints have no SQL and are never dropped
+		Cursor c=db.rawQuery("SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = ? AND sql IS NOT NULL",
+				new String[] { tableName });
+		try
+		{
+			while (c.moveToNext())
+			{
+				String name=c.getString(0).toUpperCase(Locale.US);
+				if (name.startsWith(prefix) && name.endsWith("_IDX") && ! declared.contains(name))
+					obsolete.add(name);
+			}
+		}
+		finally
+		{
+			c.close();
+		}
+		for (String name : obsolete)
+			db.execSQL("DROP INDEX IF EXISTS "+name);
+		for (String sql : createIndexes)
+			db.execSQL(sql);
+	}
+
+	/**
+	 * @param createSql CREATE TABLE statement
+	 * @return Upper-case names of the columns in the table's PRIMARY KEY (...) constraint, if any
+	 */
+	static HashSet<String> primaryKeyColumns(String createSql)
+	{
+		HashSet<String> result=new HashSet<String>();
+		String upper=createSql.toUpperCase(Locale.US);
+		int start=upper.lastIndexOf("PRIMARY KEY (");
+		if (start>=0)
+		{
+			start+=13;
+			for (String name : upper.substring(start, upper.indexOf(')', start)).split(","))
+				result.add(name.trim());
+		}
+		return result;
+	}
+
+	/**
+	 * @param definition Column definition, starting with the column name
+	 * @return Upper-case column name
+	 */
+	static String columnName(String definition)
+	{
+		String trimmed=definition.trim();
+		int end=trimmed.indexOf(' ');
+		return (end<0 ? trimmed : trimmed.substring(0, end)).toUpperCase(Locale.US);
+	}
+
+	/**
+	 * @param createIndex CREATE [UNIQUE] INDEX IF NOT EXISTS name ON ...
+	 * @return Upper-case index name
+	 */
+	static String indexName(String createIndex)
+	{
+		String upper=createIndex.toUpperCase(Locale.US);
+		int start=upper.indexOf(" EXISTS ");
+		start=start<0 ? upper.indexOf(" INDEX ")+7 : start+8;
+		int end=upper.indexOf(' ', start);
+		return upper.substring(start, end<0 ? upper.length() : end).trim();
+	}
+}
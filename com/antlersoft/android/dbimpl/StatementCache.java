@@ -0,0 +1,196 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import net.sqlcipher.database.SQLiteDatabase;
+import net.sqlcipher.database.SQLiteStatement;
+
+/**
+ * Holds the compiled statements used to write rows of one table, so writing a row
+ * does not parse and prepare its SQL again every time.
+ * <p>
+ * A compiled statement holds its bindings, so it can only be used by one thread at a time.
+ * Callers acquire a statement, bind and execute it, and then release it back to the cache.
+ * If the cached statement for some SQL is already in use, acquire compiles a new one rather
+ * than waiting for it; waiting could deadlock against another thread that holds the database
+ * lock in a transaction and wants the same statement.
+ * <p>
+ * Statements are cached for one database at a time.  If a different database (or a database
+ * that has since been closed) is passed in, the statements compiled for the old one are closed.
+ * 
+ * @author Michael A. MacDonald
+ *
+ */
+public class StatementCache {
+	/**
+	 * Maximum number of idle statements kept; statements released when the cache is full are
+	 * closed
+	 */
+	static final int MAX_IDLE = 16;
+	/**
+	 * Maximum number of different partial UPDATE statements remembered
+	 */
+	static final int MAX_PARTIAL_UPDATES = 64;
+	
+	private final String insertSql;
+	private final String updateSql;
+	private final String deleteSql;
+	private final String upsertSql;
+	
+	private SQLiteDatabase database;
+	private HashMap<String,SQLiteStatement> idle;
+	/** SQL for UPDATE statements that set some of the columns, by field mask */
+	private LongIndexMap partialUpdateIndex;
+	private ArrayList<String> partialUpdateSql;
+	
+	/**
+	 * @param insertSql INSERT statement; parameters are bound with Gen_bindValues
+	 * @param updateSql UPDATE statement; parameters are bound with Gen_bindValues followed by the _id
+	 * @param deleteSql DELETE statement; the only parameter is the _id
+	 */
+	public StatementCache(String insertSql, String updateSql, String deleteSql)
+	{
+		this(insertSql, updateSql, deleteSql, null);
+	}
+	
+	/**
+	 * @param insertSql INSERT statement; parameters are bound with Gen_bindValues
+	 * @param updateSql UPDATE statement; parameters are bound with Gen_bindValues followed by the _id
+	 * @param deleteSql DELETE statement; the only parameter is the _id
+	 * @param upsertSql INSERT ... ON CONFLICT statement; parameters are bound with Gen_bindValues
+	 * followed by the _id
+	 */
+	public StatementCache(String insertSql, String updateSql, String deleteSql, String upsertSql)
+	{
+		this.insertSql=insertSql;
+		this.updateSql=updateSql;
+		this.deleteSql=deleteSql;
+		this.upsertSql=upsertSql;
+		idle=new HashMap<String,SQLiteStatement>();
+		partialUpdateIndex=new LongIndexMap();
+		partialUpdateSql=new ArrayList<String>();
+	}
+	
+	public String getInsertSql()
+	{
+		return insertSql;
+	}
+	
+	public String getUpdateSql()
+	{
+		return updateSql;
+	}
+	
+	public String getDeleteSql()
+	{
+		return deleteSql;
+	}
+	
+	/**
+	 * @return SQL for the upsert statement, or null if there is none
+	 */
+	public String getUpsertSql()
+	{
+		return upsertSql;
+	}
+	
+	/**
+	 * Return UPDATE SQL that sets only some of the columns of the table
+	 * @param tableName Name of the table
+	 * @param columnNames Names of all the columns of the table, indexed by the GEN_ID_ constants
+	 * @param fieldMask Bit (1L << GEN_ID_) set for each column to set; must not include _id
+	 * @return SQL with a parameter for each column in fieldMask, in column order, followed
+	 * by the _id
+	 */
+	public synchronized String getUpdateSql(String tableName, String[] columnNames, long fieldMask)
+	{
+		int index=partialUpdateIndex.get(fieldMask);
+		if (index!=LongIndexMap.NOT_FOUND)
+			return partialUpdateSql.get(index);
+		StringBuilder sb=new StringBuilder();
+		sb.append("UPDATE ").append(tableName).append(" SET ");
+		boolean first=true;
+		for (int i=0; i<columnNames.length && i<64; i++)
+		{
+			if ((fieldMask & (1L << i))!=0)
+			{
+				if (! first)
+					sb.append(',');
+				first=false;
+				sb.append(columnNames[i]).append("=?");
+			}
+		}
+		sb.append(" WHERE _id = ?");
+		String sql=sb.toString();
+		if (partialUpdateSql.size()<MAX_PARTIAL_UPDATES)
+		{
+			partialUpdateIndex.put(fieldMask, partialUpdateSql.size());
+			partialUpdateSql.add(sql);
+		}
+		return sql;
+	}
+	
+	/**
+	 * Get a compiled statement for exclusive use by the caller, who must pass it to release
+	 * when done with it
+	 * @param db Database for the statement
+	 * @param sql SQL of the statement
+	 * @return Compiled statement
+	 */
+	public SQLiteStatement acquire(SQLiteDatabase db, String sql)
+	{
+		synchronized (this)
+		{
+			checkDatabase(db);
+			SQLiteStatement statement=idle.remove(sql);
+			if (statement!=null)
+				return statement;
+		}
+		return db.compileStatement(sql);
+	}
+	
+	/**
+	 * Return a statement obtained from acquire to the cache
+	 * @param db Database passed to acquire
+	 * @param sql SQL passed to acquire
+	 * @param statement Statement returned by acquire
+	 */
+	public void release(SQLiteDatabase db, String sql, SQLiteStatement statement)
+	{
+		// Don't hold on to bound strings and blobs while the statement is idle
+		statement.clearBindings();
+		synchronized (this)
+		{
+			if (db==database && db.isOpen() && idle.size()<MAX_IDLE && ! idle.containsKey(sql))
+			{
+				idle.put(sql, statement);
+				return;
+			}
+		}
+		statement.close();
+	}
+	
+	/**
+	 * Close any idle compiled statements; they will be compiled again when next acquired
+	 */
+	public synchronized void close()
+	{
+		for (SQLiteStatement statement : idle.values())
+			statement.close();
+		idle.clear();
+		database=null;
+	}
+	
+	private void checkDatabase(SQLiteDatabase db)
+	{
+		if (db!=database || ! db.isOpen())
+		{
+			close();
+			database=db;
+		}
+	}
+}
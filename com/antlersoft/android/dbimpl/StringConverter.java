@@ -0,0 +1,15 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+/**
+ * Converts values of a field's Java type to and from a String, for a field with
+ * Type=FieldType.TEXT; see LongConverter
+ * @author Michael A. MacDonald
+ *
+ */
+public interface StringConverter<T> {
+	public String toText(T value);
+	public T fromText(String stored);
+}
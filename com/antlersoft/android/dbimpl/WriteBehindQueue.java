@@ -0,0 +1,267 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import android.database.SQLException;
+import net.sqlcipher.database.SQLiteDatabase;
+
+/**
+ * Collects inserts, updates and deletes of rows and writes them later, many at a time in one
+ * transaction on the writer thread of an AsyncDatabase, instead of each in its own transaction.
+ * <p>
+ * Writes of the same row (same table and _id) in a group are combined when the group is
+ * written: an update of a row with an earlier insert or update replaces the instance written by
+ * that write, and a delete replaces an earlier update.  Writes of instances without an _id
+ * assigned by the database (Gen_hasId is false, as for a new instance) are never combined; a
+ * later write of the same instance is written after its insert has assigned the _id.  Each _id is
+ * read on the writer thread, which is the thread that assigns it, so an instance may be queued
+ * again while an earlier write of it is being flushed.
+ * <p>
+ * The pending writes are flushed when there are maxPending of them, when maxDelay has passed
+ * since the first of them was queued, or when flush is called.  The Future returned by flush
+ * completes once the writes are committed, so a caller that needs a write to be durable waits
+ * for it.
+ * <p>
+ * A group of writes is committed whole or not at all.  If any write fails, including an insert
+ * that Gen_insert reports was not made, the whole group is rolled back, each instance in it gets
+ * back the _id and changed fields it had before the flush, and the Future throws the failure.
+ * <p>
+ * An instance passed to the queue is written as it is when the queue is flushed, so it must not
+ * be changed by the caller except through another write to the queue.
+ *
+ * @author Michael A. MacDonald
+ *
+ */
+public class WriteBehindQueue {
+	static final int INSERT = 0;
+	static final int UPDATE = 1;
+	static final int DELETE = 2;
+
+	static class Write {
+		int kind;
+		IdImplementationBase instance;
+
+		Write(int kind, IdImplementationBase instance)
+		{
+			this.kind=kind;
+			this.instance=instance;
+		}
+	}
+
+	private final AsyncDatabase database;
+	private final int maxPending;
+	private final long maxDelay;
+	private final ScheduledExecutorService timer;
+
+	private ArrayList<Write> pending=new ArrayList<Write>();
+	private ScheduledFuture<?> scheduledFlush;
+	private Future<Integer> lastFlush;
+
+	/**
+	 * @param database Database whose writer thread writes the rows
+	 * @param maxPending Number of pending writes that triggers a flush
+	 * @param maxDelay Milliseconds a write may wait before it is flushed; 0 to flush only on
+	 * maxPending or flush
+	 */
+	public WriteBehindQueue(AsyncDatabase database, int maxPending, long maxDelay)
+	{
+		if (maxPending<1)
+			throw new IllegalArgumentException("maxPending must be at least 1");
+		this.database=database;
+		this.maxPending=maxPending;
+		this.maxDelay=maxDelay;
+		timer=maxDelay>0 ? Executors.newSingleThreadScheduledExecutor(new AsyncDatabase.NamedThreadFactory("WriteBehindQueue timer")) : null;
+	}
+
+	public void insert(IdImplementationBase instance)
+	{
+		queue(INSERT, instance);
+	}
+
+	public void update(IdImplementationBase instance)
+	{
+		queue(UPDATE, instance);
+	}
+
+	public void delete(IdImplementationBase instance)
+	{
+		queue(DELETE, instance);
+	}
+
+	/**
+	 * @return Number of writes waiting to be flushed, before writes of the same row are combined
+	 */
+	public synchronized int getPendingCount()
+	{
+		return pending.size();
+	}
+
+	private synchronized void queue(int kind, IdImplementationBase instance)
+	{
+		pending.add(new Write(kind, instance));
+		if (pending.size()>=maxPending)
+			flush();
+		else if (timer!=null && ! timer.isShutdown() && scheduledFlush==null)
+		{
+			scheduledFlush=timer.schedule(new Runnable() {
+				public void run() {
+					flush();
+				}
+			}, maxDelay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Write all the pending writes in one transaction on the writer thread
+	 * @return Future for the number of rows inserted, updated or deleted, which completes when
+	 * they are committed; if nothing is pending, it completes after the previous flush.  If any
+	 * write fails, nothing is committed and the Future throws the failure.
+	 */
+	public synchronized Future<Integer> flush()
+	{
+		if (scheduledFlush!=null)
+		{
+			scheduledFlush.cancel(false);
+			scheduledFlush=null;
+		}
+		if (pending.isEmpty() && lastFlush!=null)
+			return lastFlush;
+		final ArrayList<Write> writes=pending;
+		pending=new ArrayList<Write>();
+		lastFlush=database.write(new DatabaseTask<Integer>() {
+			public Integer run(SQLiteDatabase db) {
+				ArrayList<IdImplementationBase> instances=new ArrayList<IdImplementationBase>(writes.size());
+				for (Write write : writes)
+					instances.add(write.instance);
+				WriteSnapshot snapshot=new WriteSnapshot(instances);
+				boolean committed=false;
+				int rows;
+				try
+				{
+					db.beginTransaction();
+					try
+					{
+						rows=write(db, writes);
+						db.setTransactionSuccessful();
+					}
+					finally
+					{
+						db.endTransaction();
+					}
+					committed=true;
+				}
+				finally
+				{
+					if (! committed)
+						snapshot.restore();
+				}
+				return Integer.valueOf(rows);
+			}
+		});
+		return lastFlush;
+	}
+
+	/**
+	 * Combine the writes of each row, as described for the class.  Called on the writer thread,
+	 * so the _id of each instance is the one the writer thread last set.
+	 * @param writes Writes in the order they were queued; combined writes are changed in place
+	 * @return The writes left after combining, in order
+	 */
+	static ArrayList<Write> combine(List<Write> writes)
+	{
+		ArrayList<Write> combined=new ArrayList<Write>(writes.size());
+		// Position in combined of the last write of each row, by table name and _id
+		HashMap<String,LongIndexMap> positions=new HashMap<String,LongIndexMap>();
+		for (Write write : writes)
+		{
+			IdImplementationBase instance=write.instance;
+			if (instance.Gen_hasId())
+			{
+				long id=instance.get_Id();
+				LongIndexMap rows=positions.get(instance.Gen_tableName());
+				if (rows==null)
+				{
+					rows=new LongIndexMap();
+					positions.put(instance.Gen_tableName(), rows);
+				}
+				int position=rows.get(id);
+				if (position!=LongIndexMap.NOT_FOUND)
+				{
+					Write previous=combined.get(position);
+					if ((write.kind==UPDATE && previous.kind!=DELETE) || (write.kind==DELETE && previous.kind==UPDATE))
+					{
+						if (write.kind==DELETE)
+							previous.kind=DELETE;
+						previous.instance=instance;
+						continue;
+					}
+				}
+				rows.put(id, combined.size());
+			}
+			combined.add(write);
+		}
+		return combined;
+	}
+
+	/**
+	 * Combine the writes and write them, within a transaction the caller manages
+	 * @return Number of rows inserted, updated or deleted
+	 * @throws SQLException If an insert is not made, so the caller rolls back the group
+	 */
+	static int write(SQLiteDatabase db, List<Write> writes)
+	{
+		int rows=0;
+		for (Write write : combine(writes))
+		{
+			switch (write.kind)
+			{
+			case INSERT :
+				if (! write.instance.Gen_insert(db))
+					throw new SQLException("Insert into "+write.instance.Gen_tableName()+" failed");
+				rows++;
+				break;
+			case UPDATE :
+				rows+=write.instance.Gen_update(db);
+				break;
+			default :
+				rows+=write.instance.Gen_delete(db);
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Flush the pending writes and wait until they are committed
+	 * @return Number of rows inserted, updated or deleted
+	 * @throws ExecutionException If a write failed, so none of the group was committed; the cause
+	 * is the exception thrown
+	 */
+	public int flushAndWait() throws InterruptedException, ExecutionException
+	{
+		return flush().get().intValue();
+	}
+
+	/**
+	 * Flush the pending writes and stop the timer; writes queued afterward are only written by
+	 * calling flush
+	 * @return Future for the number of rows inserted, updated or deleted
+	 */
+	public synchronized Future<Integer> close()
+	{
+		Future<Integer> result=flush();
+		if (timer!=null)
+			timer.shutdown();
+		return result;
+	}
+}
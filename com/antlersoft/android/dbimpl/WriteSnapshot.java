@@ -0,0 +1,51 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.List;
+
+/**
+ * The _id and changed fields of instances before they are written in a transaction.  If the
+ * transaction is rolled back, restore puts them back, so the instances don't claim rows that were
+ * never committed and their changes are written again by the next write.
+ *
+ * @author Michael A. MacDonald
+ *
+ */
+class WriteSnapshot {
+	private final IdImplementationBase[] instances;
+	private final long[] ids;
+	private final long[] dirty;
+
+	/**
+	 * @param instances Instances about to be written; an instance may appear more than once
+	 */
+	WriteSnapshot(List<? extends IdImplementationBase> instances)
+	{
+		int count=instances.size();
+		this.instances=new IdImplementationBase[count];
+		ids=new long[count];
+		dirty=new long[count];
+		for (int i=0; i<count; i++)
+		{
+			IdImplementationBase instance=instances.get(i);
+			this.instances[i]=instance;
+			ids[i]=instance.get_Id();
+			dirty[i]=instance.Gen_dirtyMask();
+		}
+	}
+
+	/**
+	 * Put back the _id and changed fields each instance had when the snapshot was taken
+	 */
+	void restore()
+	{
+		// Last to first, so an instance that appears more than once gets its earliest values
+		for (int i=instances.length-1; i>=0; i--)
+		{
+			instances[i].set_Id(ids[i]);
+			instances[i].Gen_restoreDirty(dirty[i]);
+		}
+	}
+}
@@ -193,6 +193,16 @@ public class Annotation implements AnnotationInfo {
 			classStream.write(type);
 			value.write( classStream);
 		}
+		
+		/**
+		 * Return an object representing the value, as described for Annotation.getElementValue
+		 * @param cw ClassWriter with information about the containing class
+		 * @return Object with the value
+		 */
+		public Object getObject(ClassWriter cw)
+		{
+			return value.getObject(cw);
+		}
 	}
 	
 	/**
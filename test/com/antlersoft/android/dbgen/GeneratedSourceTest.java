@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbgen;
+
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.HashMap;
+
+import com.antlersoft.android.dbgen.fixture.Attachment;
+import com.antlersoft.android.dbgen.fixture.Event;
+import com.antlersoft.android.dbgen.fixture.LogEntry;
+import com.antlersoft.android.dbgen.fixture.NaturalKey;
+import com.antlersoft.android.dbgen.fixture.Sample;
+import com.antlersoft.android.dbgen.fixture.StrictBlobObject;
+import com.antlersoft.android.dbgen.fixture.Task;
+import com.antlersoft.classwriter.ClassWriter;
+import com.antlersoft.util.TestCase;
+
+/**
+ * Checks the SQL and Java the generator writes for the table definitions in the fixture package
+ * @author Michael A. MacDonald
+ *
+ */
+public class GeneratedSourceTest extends TestCase {
+	/**
+	 * Keeps each generated class in memory
+	 */
+	static class CapturingSource implements SourceInterface {
+		HashMap<String,StringWriter> classes=new HashMap<String,StringWriter>();
+
+		public PrintWriter getWriterForClass(String packageName, String className) {
+			StringWriter sw=new StringWriter();
+			classes.put(className, sw);
+			return new PrintWriter(sw);
+		}
+
+		public void doneWithWriter(PrintWriter w) {
+			w.close();
+		}
+	}
+
+	/**
+	 * @param tableInterface Annotated interface compiled with the tests
+	 * @return Generated source of each class, by class name
+	 */
+	static HashMap<String,String> generate(Class<?> tableInterface) throws Exception
+	{
+		ClassWriter cw=new ClassWriter();
+		InputStream is=tableInterface.getResourceAsStream(tableInterface.getSimpleName()+".class");
+		try
+		{
+			cw.readClass(is);
+		}
+		finally
+		{
+			is.close();
+		}
+		CapturingSource source=new CapturingSource();
+		new SourceFileGenerator(source).generate(cw);
+		HashMap<String,String> result=new HashMap<String,String>();
+		for (String name : source.classes.keySet())
+			result.put(name, source.classes.get(name).toString());
+		return result;
+	}
+
+	public void testCreateTable() throws Exception
+	{
+		String source=generate(Sample.class).get("Gen_Sample");
+		assertContains("create", "GEN_CREATE = \"CREATE TABLE SAMPLE (\" +", source);
+		assertContains("_id", "\"_id INTEGER PRIMARY KEY AUTOINCREMENT,\" +", source);
+		assertContains("default", "\"COUNT INTEGER NOT NULL DEFAULT 3\" +", source);
+	}
+
+	public void testCreateIndexes() throws Exception
+	{
+		String source=generate(Sample.class).get("Gen_Sample");
+		assertContains("index", "\"CREATE INDEX IF NOT EXISTS SAMPLE_AGE_SCORE_IDX ON SAMPLE (AGE,SCORE)\"", source);
+	}
+
+	public void testGeneratedArraysArePrivate() throws Exception
+	{
+		String source=generate(Sample.class).get("Gen_Sample");
+		assertContains("columns", "private static final String[] GEN_COLUMNS = {", source);
+		assertContains("kinds", "private static final int[] GEN_NUMERIC_KINDS = {", source);
+		assertContains("definitions", "private static final String[] GEN_COLUMN_DEFINITIONS = {", source);
+		assertContains("indexes", "private static final String[] GEN_CREATE_INDEXES = {", source);
+		assertContains("columns copy", "public static String[] Gen_columns() { return GEN_COLUMNS.clone(); }", source);
+		assertContains("indexes copy", "public static String[] Gen_createIndexes() { return GEN_CREATE_INDEXES.clone(); }", source);
+		assertContains("shared names", "protected String[] Gen_columnNames() { return GEN_COLUMNS; }", source);
+	}
+
+	public void testWriteStatements() throws Exception
+	{
+		String source=generate(Sample.class).get("Gen_Sample");
+		assertContains("insert", "GEN_INSERT = \"INSERT INTO SAMPLE (NAME,AGE,SCORE,ACTIVE,COUNT) VALUES (?,?,?,?,?)\";", source);
+		assertContains("update", "GEN_UPDATE = \"UPDATE SAMPLE SET NAME=?,AGE=?,SCORE=?,ACTIVE=?,COUNT=? WHERE _id = ?\";", source);
+		assertContains("delete", "GEN_DELETE = \"DELETE FROM SAMPLE WHERE _id = ?\";", source);
+	}
+
+	public void testUpsertStatement() throws Exception
+	{
+		String source=generate(Sample.class).get("Gen_Sample");
+		assertContains("upsert", "GEN_UPSERT = \"INSERT INTO SAMPLE (NAME,AGE,SCORE,ACTIVE,COUNT,_id) VALUES (?,?,?,?,?,?) ON CONFLICT(_id) DO UPDATE SET "+
+				"NAME=excluded.NAME,AGE=excluded.AGE,SCORE=excluded.SCORE,ACTIVE=excluded.ACTIVE,COUNT=excluded.COUNT\";", source);
+	}
+
+	public void testGetValuesPutsNativeTypes() throws Exception
+	{
+		String source=generate(Sample.class).get("Gen_Sample");
+		assertContains("int", "values.put(GEN_FIELD_AGE,Integer.valueOf(this.gen_age));", source);
+		assertContains("double", "values.put(GEN_FIELD_SCORE,Double.valueOf(this.gen_score));", source);
+		assertContains("boolean", "values.put(GEN_FIELD_ACTIVE,Integer.valueOf(this.gen_active ? 1 : 0));", source);
+		assertContains("long", "values.put(GEN_FIELD_COUNT,Long.valueOf(this.gen_count));", source);
+		assertTrue("no numbers formatted as strings", source.indexOf(".toString(this.gen_")<0);
+	}
+
+	public void testProjectedReadKeepsOtherChanges() throws Exception
+	{
+		String populate=cursorPopulate(generate(Sample.class).get("Gen_Sample"));
+		assertContains("dirty bits cleared per column", "Gen_dirty &= ~(1L << i);", populate);
+		assertTrue("whole mask not reset", populate.indexOf("Gen_dirty = 0;")<0);
+	}
+
+	public void testNullColumnSetsReferenceFieldsToNull() throws Exception
+	{
+		String populate=cursorPopulate(generate(Attachment.class).get("Gen_Attachment"));
+		assertContains("String", "gen_fileName = cursor.isNull(columnIndices[GEN_ID_FILENAME]) ? null : cursor.getString(columnIndices[GEN_ID_FILENAME]);", populate);
+		assertContains("byte[]", "gen_data = cursor.isNull(columnIndices[GEN_ID_DATA]) ? null : cursor.getBlob(columnIndices[GEN_ID_DATA]);", populate);
+	}
+
+	public void testNullColumnSetsConvertedFieldToNull() throws Exception
+	{
+		String populate=cursorPopulate(generate(Event.class).get("Gen_Event"));
+		assertContains("converter not called for NULL", "gen_when = cursor.isNull(columnIndices[GEN_ID_WHEN]) ? null : ", populate);
+	}
+
+	public void testNullColumnSetsEnumFieldsToNull() throws Exception
+	{
+		String populate=cursorPopulate(generate(Task.class).get("Gen_Task"));
+		assertContains("ordinal", "gen_priority = cursor.isNull(columnIndices[GEN_ID_PRIORITY]) ? null : ", populate);
+		assertContains("name", "gen_escalation = cursor.isNull(columnIndices[GEN_ID_ESCALATION]) ? null : ", populate);
+	}
+
+	public void testIdByBindsNonNullValue() throws Exception
+	{
+		String source=generate(Attachment.class).get("Gen_Attachment");
+		int start=source.indexOf("public static long Gen_idByFileName(");
+		String idBy=source.substring(start, source.indexOf("\n    }", start));
+		assertContains("null returns early", "if (value == null) {", idBy);
+		assertContains("bound as a string", "statement.bindString(1, value);", idBy);
+		assertTrue("no unreachable bindNull", idBy.indexOf("bindNull")<0);
+	}
+
+	public void testAutoincrementOptOut() throws Exception
+	{
+		String source=generate(LogEntry.class).get("Gen_LogEntry");
+		assertContains("plain rowid alias", "\"_id INTEGER PRIMARY KEY,\" +", source);
+		assertTrue("no AUTOINCREMENT", source.indexOf("AUTOINCREMENT")<0);
+	}
+
+	public void testNaturalKeyWithoutRowid() throws Exception
+	{
+		String source=generate(NaturalKey.class).get("Gen_NaturalKey");
+		assertContains("key column", "\"CODE TEXT NOT NULL,\" +", source);
+		assertContains("key constraint", "\"PRIMARY KEY (CODE)\" +", source);
+		assertContains("options", "\") WITHOUT ROWID, STRICT\";", source);
+		assertTrue("no _id", source.indexOf("_id INTEGER")<0);
+	}
+
+	public void testStrictStoresObjectAsText() throws Exception
+	{
+		String source=generate(NaturalKey.class).get("Gen_NaturalKey");
+		assertContains("TEXT column for toString()", "\"WEBSITE TEXT,\" +", source);
+		try
+		{
+			generate(StrictBlobObject.class);
+			fail("object bound as a string into a STRICT BLOB column");
+		}
+		catch (SourceInterface.SIException sie)
+		{
+			assertContains("message", "StrictBlobObject.getLink", sie.getMessage());
+		}
+	}
+
+	public void testSchemaVersionChangesWithDefinition() throws Exception
+	{
+		assertTrue("different tables have different versions",
+				! schemaVersion(generate(Sample.class).get("Gen_Sample")).equals(schemaVersion(generate(NaturalKey.class).get("Gen_NaturalKey"))));
+		assertEquals("stable", schemaVersion(generate(Sample.class).get("Gen_Sample")), schemaVersion(generate(Sample.class).get("Gen_Sample")));
+	}
+
+	/**
+	 * @return Body of the generated Gen_populate(Cursor, int[])
+	 */
+	private static String cursorPopulate(String source)
+	{
+		int start=source.indexOf("void Gen_populate(android.database.Cursor cursor");
+		return source.substring(start, source.indexOf("\n    }", start));
+	}
+
+	private static String schemaVersion(String source)
+	{
+		int start=source.indexOf("GEN_SCHEMA_VERSION = ");
+		return source.substring(start, source.indexOf(';', start));
+	}
+}
@@ -0,0 +1,19 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbgen.fixture;
+
+import com.antlersoft.android.db.FieldAccessor;
+import com.antlersoft.android.db.TableInterface;
+
+/**
+ * Table with TEXT and BLOB columns read into reference-typed fields, one of them unique
+ * @author Michael A. MacDonald
+ *
+ */
+@TableInterface(TableName="attachment")
+public interface Attachment {
+	@FieldAccessor long get_Id();
+	@FieldAccessor(Unique=true) String getFileName();
+	@FieldAccessor byte[] getData();
+}
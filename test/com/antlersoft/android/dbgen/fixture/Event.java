@@ -0,0 +1,22 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbgen.fixture;
+
+import java.util.Date;
+
+import com.antlersoft.android.db.FieldAccessor;
+import com.antlersoft.android.db.FieldType;
+import com.antlersoft.android.db.TableInterface;
+import com.antlersoft.android.dbimpl.DateConverter;
+
+/**
+ * Table with a field stored through a converter
+ * @author Michael A. MacDonald
+ *
+ */
+@TableInterface(TableName="event")
+public interface Event {
+	@FieldAccessor long get_Id();
+	@FieldAccessor(Type=FieldType.INTEGER, Converter=DateConverter.class) Date getWhen();
+}
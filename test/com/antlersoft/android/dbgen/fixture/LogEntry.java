@@ -0,0 +1,18 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbgen.fixture;
+
+import com.antlersoft.android.db.FieldAccessor;
+import com.antlersoft.android.db.TableInterface;
+
+/**
+ * Insert-heavy table whose _id is a plain rowid alias rather than AUTOINCREMENT
+ * @author Michael A. MacDonald
+ *
+ */
+@TableInterface(TableName="log_entry")
+public interface LogEntry {
+	@FieldAccessor(Autoincrement=false) long get_Id();
+	@FieldAccessor String getMessage();
+}
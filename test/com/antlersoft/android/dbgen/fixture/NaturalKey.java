@@ -0,0 +1,21 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbgen.fixture;
+
+import java.net.URI;
+
+import com.antlersoft.android.db.FieldAccessor;
+import com.antlersoft.android.db.TableInterface;
+
+/**
+ * Table with a natural primary key and no _id, WITHOUT ROWID and STRICT
+ * @author Michael A. MacDonald
+ *
+ */
+@TableInterface(TableName="natural_key", WithoutRowid=true, Strict=true)
+public interface NaturalKey {
+	@FieldAccessor(PrimaryKey=true, Nullable=false) String getCode();
+	@FieldAccessor int getPopulation();
+	@FieldAccessor URI getWebsite();
+}
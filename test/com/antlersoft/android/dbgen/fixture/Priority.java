@@ -0,0 +1,14 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbgen.fixture;
+
+/**
+ * Enum stored in the Task fixture
+ * @author Michael A. MacDonald
+ *
+ */
+public enum Priority {
+	LOW,
+	HIGH
+}
@@ -0,0 +1,22 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbgen.fixture;
+
+import com.antlersoft.android.db.FieldAccessor;
+import com.antlersoft.android.db.TableInterface;
+
+/**
+ * Table definition the generator tests generate code from
+ * @author Michael A. MacDonald
+ *
+ */
+@TableInterface(TableName="sample", Indexes={"age,score"})
+public interface Sample {
+	@FieldAccessor long get_Id();
+	@FieldAccessor String getName();
+	@FieldAccessor int getAge();
+	@FieldAccessor double getScore();
+	@FieldAccessor boolean isActive();
+	@FieldAccessor(Nullable=false, DefaultValue="3") long getCount();
+}
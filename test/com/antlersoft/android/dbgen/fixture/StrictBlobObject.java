@@ -0,0 +1,22 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbgen.fixture;
+
+import java.net.URI;
+
+import com.antlersoft.android.db.FieldAccessor;
+import com.antlersoft.android.db.FieldType;
+import com.antlersoft.android.db.TableInterface;
+
+/**
+ * STRICT table with an object field that would be bound as a string into a BLOB column, which the
+ * generator rejects
+ * @author Michael A. MacDonald
+ *
+ */
+@TableInterface(TableName="strict_blob_object", Strict=true)
+public interface StrictBlobObject {
+	@FieldAccessor long get_Id();
+	@FieldAccessor(Type=FieldType.BLOB) URI getLink();
+}
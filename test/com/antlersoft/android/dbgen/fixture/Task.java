@@ -0,0 +1,20 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbgen.fixture;
+
+import com.antlersoft.android.db.EnumStorage;
+import com.antlersoft.android.db.FieldAccessor;
+import com.antlersoft.android.db.TableInterface;
+
+/**
+ * Table with enum fields stored as an ordinal and as a name
+ * @author Michael A. MacDonald
+ *
+ */
+@TableInterface(TableName="task")
+public interface Task {
+	@FieldAccessor long get_Id();
+	@FieldAccessor(EnumStorage=EnumStorage.ORDINAL) Priority getPriority();
+	@FieldAccessor(EnumStorage=EnumStorage.NAME) Priority getEscalation();
+}
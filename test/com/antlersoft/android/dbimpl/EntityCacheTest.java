@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import com.antlersoft.util.TestCase;
+
+/**
+ * @author Michael A. MacDonald
+ *
+ */
+public class EntityCacheTest extends TestCase {
+	public void testEvictsLeastRecentlyUsed()
+	{
+		EntityCache<TestEntity> cache=new EntityCache<TestEntity>(3);
+		TestEntity one=new TestEntity(1);
+		cache.put(one);
+		cache.put(new TestEntity(2));
+		cache.put(new TestEntity(3));
+		// Reading 1 makes 2 the least recently used
+		assertTrue("1 cached", cache.get(1)==one);
+		cache.put(new TestEntity(4));
+		assertEquals("size", 3, cache.size());
+		assertTrue("2 evicted", cache.get(2)==null);
+		assertTrue("1 kept", cache.get(1)==one);
+		assertTrue("3 kept", cache.get(3)!=null);
+		assertTrue("4 kept", cache.get(4)!=null);
+		cache.put(new TestEntity(5));
+		assertTrue("1 evicted after 3 and 4 were read", cache.get(1)==null);
+	}
+
+	public void testPutReplacesSameId()
+	{
+		EntityCache<TestEntity> cache=new EntityCache<TestEntity>(2);
+		cache.put(new TestEntity(1));
+		TestEntity replacement=new TestEntity(1);
+		cache.put(replacement);
+		assertEquals("size", 1, cache.size());
+		assertTrue("replaced", cache.get(1)==replacement);
+	}
+
+	public void testRemoveFreesSlot()
+	{
+		EntityCache<TestEntity> cache=new EntityCache<TestEntity>(2);
+		cache.put(new TestEntity(1));
+		cache.put(new TestEntity(2));
+		cache.remove(1);
+		cache.remove(99);
+		assertEquals("size after remove", 1, cache.size());
+		cache.put(new TestEntity(3));
+		assertTrue("2 not evicted into the free slot", cache.get(2)!=null);
+		assertTrue("3 cached", cache.get(3)!=null);
+		assertTrue("1 removed", cache.get(1)==null);
+	}
+
+	public void testZeroCapacityHoldsNothing()
+	{
+		EntityCache<TestEntity> cache=new EntityCache<TestEntity>(0);
+		cache.put(new TestEntity(1));
+		assertEquals("size", 0, cache.size());
+		assertTrue("not cached", cache.get(1)==null);
+	}
+
+	public void testManyEvictionsKeepLastEntries()
+	{
+		EntityCache<TestEntity> cache=new EntityCache<TestEntity>(100);
+		for (int i=1; i<=10000; i++)
+			cache.put(new TestEntity(i));
+		assertEquals("size", 100, cache.size());
+		for (int i=1; i<=10000; i++)
+			assertEquals("cached "+i, i>9900 ? 1 : 0, cache.get(i)==null ? 0 : 1);
+	}
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Compares the cost per 100,000 rows of the Gen_getValues that formatted numeric fields as
+ * strings with the one that puts them with their native types.
+ * <p>
+ * Runs on a plain JVM: ContentValues is a HashMap&lt;String,Object&gt; wrapper, so each row is put
+ * into a HashMap sized as ContentValues sizes it, using the same expressions the two versions of
+ * the generator emitted.  This measures the Java side only; SQLite parsing the strings back into
+ * numbers when the row is inserted is an additional cost of the old version that needs a device
+ * to measure.
+ * <p>
+ * Usage: java com.antlersoft.android.dbimpl.GetValuesBenchmark [passes]
+ *
+ * @author Michael A. MacDonald
+ *
+ */
+public class GetValuesBenchmark {
+	static final int ROWS = 100000;
+
+	/** Fields of one row of a typical table */
+	static class Row {
+		long id;
+		String name;
+		int age;
+		long count;
+		double score;
+		boolean active;
+	}
+
+	/**
+	 * Values as the generator emitted them before: numbers formatted with toString
+	 */
+	static HashMap<String,Object> stringValues(Row r)
+	{
+		HashMap<String,Object> values=new HashMap<String,Object>(8);
+		values.put("_id", Long.toString(r.id));
+		values.put("NAME", r.name);
+		values.put("AGE", Integer.toString(r.age));
+		values.put("COUNT", Long.toString(r.count));
+		values.put("SCORE", Double.toString(r.score));
+		values.put("ACTIVE", r.active ? "1" : "0");
+		return values;
+	}
+
+	/**
+	 * Values as the generator emits them now: numbers boxed in their native types
+	 */
+	static HashMap<String,Object> nativeValues(Row r)
+	{
+		HashMap<String,Object> values=new HashMap<String,Object>(8);
+		values.put("_id", Long.valueOf(r.id));
+		values.put("NAME", r.name);
+		values.put("AGE", Integer.valueOf(r.age));
+		values.put("COUNT", Long.valueOf(r.count));
+		values.put("SCORE", Double.valueOf(r.score));
+		values.put("ACTIVE", Integer.valueOf(r.active ? 1 : 0));
+		return values;
+	}
+
+	/**
+	 * Build the values of every row once
+	 * @return Sum of the sizes, so the work can't be optimized away
+	 */
+	static long pass(Row[] rows, boolean nativeTypes)
+	{
+		long check=0;
+		for (Row r : rows)
+			check+=(nativeTypes ? nativeValues(r) : stringValues(r)).size();
+		return check;
+	}
+
+	static Row[] rows()
+	{
+		Row[] rows=new Row[ROWS];
+		for (int i=0; i<ROWS; i++)
+		{
+			Row r=new Row();
+			r.id=i+1;
+			r.name="name"+(i%100);
+			r.age=i%90;
+			r.count=i*1000003L;
+			r.score=i*0.37;
+			r.active=(i&1)==0;
+			rows[i]=r;
+		}
+		return rows;
+	}
+
+	/**
+	 * @return Bytes allocated by the current thread so far, or -1 if the JVM doesn't report it
+	 */
+	static long allocatedBytes()
+	{
+		ThreadMXBean bean=ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean)
+			return ((com.sun.management.ThreadMXBean)bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		return -1;
+	}
+
+	public static void main(String[] args)
+	{
+		int passes=args.length>0 ? Integer.parseInt(args[0]) : 20;
+		Row[] rows=rows();
+		long check=0;
+		// Warm up both versions so they are compiled before they are timed
+		for (int i=0; i<10; i++)
+			check+=pass(rows, false)+pass(rows, true);
+		String[] names={ "toString", "native" };
+		for (int version=0; version<2; version++)
+		{
+			long[] times=new long[passes];
+			long allocated=allocatedBytes();
+			for (int i=0; i<passes; i++)
+			{
+				long start=System.nanoTime();
+				check+=pass(rows, version==1);
+				times[i]=System.nanoTime()-start;
+			}
+			allocated=allocated<0 ? -1 : (allocatedBytes()-allocated)/passes;
+			Arrays.sort(times);
+			System.out.println(names[version]+": median "+(times[passes/2]/1000)+" us per "+ROWS+" rows"+
+					(allocated<0 ? "" : ", "+allocated/1024+" KB allocated per "+ROWS+" rows"));
+		}
+		System.out.println("(check "+check+")");
+	}
+}
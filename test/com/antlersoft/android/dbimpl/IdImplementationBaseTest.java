@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import net.sqlcipher.database.SQLiteDatabase;
+
+import com.antlersoft.util.TestCase;
+
+/**
+ * Tests of the parts of IdImplementationBase that decide what to do before the database is used,
+ * so they run without one
+ * @author Michael A. MacDonald
+ *
+ */
+public class IdImplementationBaseTest extends TestCase {
+	/**
+	 * TestEntity that records Gen_insert instead of writing a row, assigning the next _id
+	 */
+	static class InsertRecorder extends TestEntity {
+		int inserts;
+
+		InsertRecorder(long id)
+		{
+			super(id);
+		}
+
+		public boolean Gen_insert(SQLiteDatabase db) {
+			inserts++;
+			set_Id(42);
+			return true;
+		}
+	}
+
+	public void testHasId()
+	{
+		assertTrue("new instance", ! new TestEntity(0).Gen_hasId());
+		assertTrue("NO_ID", ! new TestEntity(IdImplementationBase.NO_ID).Gen_hasId());
+		assertTrue("assigned", new TestEntity(7).Gen_hasId());
+		TestEntity withoutRowid=new TestEntity(0) {
+			public boolean Gen_assignsId() { return false; }
+		};
+		assertTrue("_id not assigned by the database", withoutRowid.Gen_hasId());
+	}
+
+	public void testUpsertOfNewInstanceInserts()
+	{
+		InsertRecorder entity=new InsertRecorder(0);
+		assertTrue("written", entity.Gen_upsert(null));
+		assertEquals("inserted", 1, entity.inserts);
+		assertEquals("assigned id", 42, entity.get_Id());
+		InsertRecorder noId=new InsertRecorder(IdImplementationBase.NO_ID);
+		assertTrue("NO_ID written", noId.Gen_upsert(null));
+		assertEquals("NO_ID inserted", 1, noId.inserts);
+	}
+
+	public void testUpsertStatementRejectsNewInstance()
+	{
+		try
+		{
+			new TestEntity(0).upsertWith(null);
+			fail("upsert of row 0");
+		}
+		catch (IllegalStateException ise)
+		{
+			// expected
+		}
+	}
+
+	public void testReadPageRejectsPageSizeBelowOne()
+	{
+		for (int pageSize=-1; pageSize<=0; pageSize++)
+		{
+			try
+			{
+				IdImplementationBase.Gen_readPage(null, "TEST", Page.FIRST_KEY, pageSize, null);
+				fail("page size "+pageSize);
+			}
+			catch (IllegalArgumentException iae)
+			{
+				// expected
+			}
+		}
+	}
+
+	public void testReadBlobRejectsRangeOutsideBuffer()
+	{
+		TestEntity entity=new TestEntity(1);
+		byte[] buffer=new byte[10];
+		// offset, length, blob offset
+		long[][] ranges={ { -1, 5, 0 }, { 0, -1, 0 }, { 6, 5, 0 }, { 11, 0, 0 }, { 0, 11, 0 }, { 0, 5, -1 } };
+		for (long[] range : ranges)
+		{
+			try
+			{
+				entity.Gen_readBlob(null, "DATA", range[2], buffer, (int)range[0], (int)range[1]);
+				fail("offset "+range[0]+", length "+range[1]+", blob offset "+range[2]);
+			}
+			catch (IndexOutOfBoundsException ioobe)
+			{
+				// expected
+			}
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.io.PrintStream;
+
+import net.sqlcipher.database.SQLiteDatabase;
+import net.sqlcipher.database.SQLiteStatement;
+
+/**
+ * Compares insert throughput into a table whose _id is INTEGER PRIMARY KEY AUTOINCREMENT with
+ * one whose _id is a plain rowid alias (@FieldAccessor(Autoincrement=false)), each with one
+ * transaction per row and with all the rows in one transaction (as Gen_insertAll does).
+ * <p>
+ * This needs an open SQLCipher database, so it can't run on a plain JVM.  To measure, call run
+ * from an instrumentation test or a debug build of an app, on a database opened the same way the
+ * app opens its own (same key, page size and journal mode), and read the results from the
+ * PrintStream, for example one wrapping a log or a file:
+ * <pre>
+ * SQLiteDatabase db=SQLiteDatabase.openOrCreateDatabase(file, key, null);
+ * InsertBenchmark.run(db, 10000, out);
+ * </pre>
+ * The benchmark creates and drops its own tables.
+ *
+ * @author Michael A. MacDonald
+ *
+ */
+public class InsertBenchmark {
+	static final String AUTOINCREMENT_TABLE = "BENCH_AUTOINCREMENT";
+	static final String ROWID_TABLE = "BENCH_ROWID";
+
+	/**
+	 * Time each combination of key and transaction grouping
+	 * @param db Open database
+	 * @param rows Number of rows inserted in each measurement
+	 * @param out Receives one line per measurement
+	 */
+	public static void run(SQLiteDatabase db, int rows, PrintStream out)
+	{
+		String[] tables={ AUTOINCREMENT_TABLE, ROWID_TABLE };
+		String[] keys={ "INTEGER PRIMARY KEY AUTOINCREMENT", "INTEGER PRIMARY KEY" };
+		for (int batched=0; batched<2; batched++)
+		{
+			for (int t=0; t<tables.length; t++)
+			{
+				db.execSQL("DROP TABLE IF EXISTS "+tables[t]);
+				db.execSQL("CREATE TABLE "+tables[t]+" (_id "+keys[t]+", NAME TEXT, VALUE INTEGER)");
+				// One untimed pass so the statement and the table's pages are warm
+				insert(db, tables[t], Math.min(rows, 100), batched==1);
+				long start=System.nanoTime();
+				insert(db, tables[t], rows, batched==1);
+				long elapsed=System.nanoTime()-start;
+				out.println(keys[t]+(batched==1 ? ", one transaction: " : ", transaction per row: ")+
+						(rows*1000000000L/Math.max(1, elapsed))+" rows/s");
+				db.execSQL("DROP TABLE "+tables[t]);
+			}
+		}
+	}
+
+	private static void insert(SQLiteDatabase db, String table, int rows, boolean batched)
+	{
+		SQLiteStatement insert=db.compileStatement("INSERT INTO "+table+" (NAME,VALUE) VALUES (?,?)");
+		try
+		{
+			if (batched)
+				db.beginTransaction();
+			try
+			{
+				for (int i=0; i<rows; i++)
+				{
+					insert.bindString(1, "row"+(i%100));
+					insert.bindLong(2, i);
+					insert.executeInsert();
+				}
+				if (batched)
+					db.setTransactionSuccessful();
+			}
+			finally
+			{
+				if (batched)
+					db.endTransaction();
+			}
+		}
+		finally
+		{
+			insert.close();
+		}
+	}
+}
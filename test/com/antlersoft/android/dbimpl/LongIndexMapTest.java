@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.antlersoft.util.TestCase;
+
+/**
+ * @author Michael A. MacDonald
+ *
+ */
+public class LongIndexMapTest extends TestCase {
+	public void testPutGetAndReplace()
+	{
+		LongIndexMap map=new LongIndexMap();
+		assertEquals("empty get", LongIndexMap.NOT_FOUND, map.get(5));
+		assertEquals("new put", LongIndexMap.NOT_FOUND, map.put(5, 1));
+		assertEquals("replace returns old value", 1, map.put(5, 2));
+		assertEquals("get", 2, map.get(5));
+		assertEquals("size", 1, map.size());
+		assertEquals("negative key", LongIndexMap.NOT_FOUND, map.put(-7, 3));
+		assertEquals("negative key get", 3, map.get(-7));
+	}
+
+	public void testGrowKeepsEntries()
+	{
+		LongIndexMap map=new LongIndexMap(2);
+		for (int i=0; i<10000; i++)
+			map.put(i*31L, i);
+		assertEquals("size", 10000, map.size());
+		for (int i=0; i<10000; i++)
+			assertEquals("value of "+i, i, map.get(i*31L));
+	}
+
+	public void testRemoveKeepsCollidingEntriesReachable()
+	{
+		// Many keys in a small table, so removals close gaps in long probe sequences
+		LongIndexMap map=new LongIndexMap(16);
+		for (int i=0; i<12; i++)
+			map.put(i<<20, i);
+		for (int i=0; i<12; i+=2)
+			assertEquals("remove "+i, i, map.remove(i<<20));
+		for (int i=0; i<12; i++)
+			assertEquals("after removes "+i, i%2==0 ? LongIndexMap.NOT_FOUND : i, map.get(i<<20));
+		assertEquals("remove missing", LongIndexMap.NOT_FOUND, map.remove(12345));
+		assertEquals("size", 6, map.size());
+	}
+
+	public void testMatchesHashMapUnderRandomOperations()
+	{
+		Random random=new Random(42);
+		LongIndexMap map=new LongIndexMap();
+		HashMap<Long,Integer> model=new HashMap<Long,Integer>();
+		for (int i=0; i<200000; i++)
+		{
+			long key=random.nextInt(2000)-1000;
+			switch (random.nextInt(3))
+			{
+			case 0 :
+				Integer old=model.put(Long.valueOf(key), Integer.valueOf(i));
+				assertEquals("put "+key, old==null ? LongIndexMap.NOT_FOUND : old.intValue(), map.put(key, i));
+				break;
+			case 1 :
+				Integer removed=model.remove(Long.valueOf(key));
+				assertEquals("remove "+key, removed==null ? LongIndexMap.NOT_FOUND : removed.intValue(), map.remove(key));
+				break;
+			default :
+				Integer value=model.get(Long.valueOf(key));
+				assertEquals("get "+key, value==null ? LongIndexMap.NOT_FOUND : value.intValue(), map.get(key));
+			}
+		}
+		assertEquals("size", model.size(), map.size());
+		for (Map.Entry<Long,Integer> e : model.entrySet())
+			assertEquals("final "+e.getKey(), e.getValue().intValue(), map.get(e.getKey().longValue()));
+	}
+
+	public void testClear()
+	{
+		LongIndexMap map=new LongIndexMap();
+		map.put(1, 1);
+		map.clear();
+		assertEquals("size", 0, map.size());
+		assertEquals("get", LongIndexMap.NOT_FOUND, map.get(1));
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import com.antlersoft.util.TestCase;
+
+/**
+ * @author Michael A. MacDonald
+ *
+ */
+public class NumericColumnsTest extends TestCase {
+	static final int[] KINDS = { NumericColumns.INT, NumericColumns.LONG, NumericColumns.DOUBLE };
+
+	private static double[][] rows(int count)
+	{
+		double[][] result=new double[count][];
+		for (int i=0; i<count; i++)
+			result[i]=new double[] { i, 10000000000L+i, i+0.5 };
+		return result;
+	}
+
+	private static void checkColumns(NumericColumns columns, int count)
+	{
+		assertEquals("size", count, columns.size());
+		int[] ints=columns.getInts(0);
+		long[] longs=columns.getLongs(1);
+		double[] doubles=columns.getDoubles(2);
+		assertEquals("ints trimmed", count, ints.length);
+		assertEquals("longs trimmed", count, longs.length);
+		assertEquals("doubles trimmed", count, doubles.length);
+		for (int i=0; i<count; i++)
+		{
+			assertEquals("int "+i, i, ints[i]);
+			assertEquals("long "+i, 10000000000L+i, longs[i]);
+			assertEquals("double "+i, i+0.5, doubles[i]);
+		}
+	}
+
+	public void testSizedFromCount()
+	{
+		checkColumns(NumericColumns.read(TestCursor.create(rows(1000), true), KINDS), 1000);
+	}
+
+	public void testGrowsWhenCountIsUnknown()
+	{
+		// Past several doublings of the initial capacity, and not a power of two so the arrays are trimmed
+		int count=NumericColumns.INITIAL_CAPACITY*9+3;
+		checkColumns(NumericColumns.read(TestCursor.create(rows(count), false), KINDS), count);
+	}
+
+	public void testEmptyCursor()
+	{
+		checkColumns(NumericColumns.read(TestCursor.create(rows(0), false), KINDS), 0);
+	}
+
+	public void testWrongKindIsRejected()
+	{
+		NumericColumns columns=NumericColumns.read(TestCursor.create(rows(3), true), KINDS);
+		try
+		{
+			columns.getLongs(0);
+			fail("getLongs of an INT column");
+		}
+		catch (IllegalArgumentException iae)
+		{
+		}
+	}
+
+	public void testNonNumericColumnIsRejected()
+	{
+		try
+		{
+			NumericColumns.read(TestCursor.create(rows(3), true), new int[] { NumericColumns.NOT_NUMERIC });
+			fail("read of a NOT_NUMERIC column");
+		}
+		catch (IllegalArgumentException iae)
+		{
+		}
+	}
+}
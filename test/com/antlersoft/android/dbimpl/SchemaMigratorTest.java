@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.HashSet;
+
+import com.antlersoft.util.TestCase;
+
+/**
+ * Tests of how SchemaMigrator compares the live table, as PRAGMA table_info describes it, with
+ * the generated definitions
+ * @author Michael A. MacDonald
+ *
+ */
+public class SchemaMigratorTest extends TestCase {
+	private static SchemaMigrator.LiveColumn live(String type, boolean notNull, String defaultValue, boolean primaryKey)
+	{
+		return new SchemaMigrator.LiveColumn(type, notNull, defaultValue, primaryKey);
+	}
+
+	public void testMatchingColumns()
+	{
+		assertEquals("plain", null, live("TEXT", false, null, false).difference("NAME TEXT", false));
+		assertEquals("not null default", null, live("INTEGER", true, "3", false).difference("COUNT INTEGER NOT NULL DEFAULT 3", false));
+		assertEquals("text default", null, live("TEXT", false, "'a b'", false).difference("LABEL TEXT DEFAULT 'a b'", false));
+		assertEquals("rowid key", null, live("INTEGER", false, null, true).difference("_id INTEGER PRIMARY KEY AUTOINCREMENT", false));
+		assertEquals("table key", null, live("TEXT", true, null, true).difference("CODE TEXT NOT NULL", true));
+		assertEquals("type case", null, live("integer", false, null, false).difference("AGE INTEGER", false));
+	}
+
+	public void testChangedColumns()
+	{
+		assertTrue("type", live("TEXT", false, null, false).difference("AGE INTEGER", false)!=null);
+		assertTrue("made NOT NULL", live("INTEGER", false, null, false).difference("AGE INTEGER NOT NULL DEFAULT 0", false)!=null);
+		assertTrue("made nullable", live("INTEGER", true, "0", false).difference("AGE INTEGER DEFAULT 0", false)!=null);
+		assertTrue("default changed", live("INTEGER", true, "3", false).difference("COUNT INTEGER NOT NULL DEFAULT 4", false)!=null);
+		assertTrue("default added", live("INTEGER", false, null, false).difference("COUNT INTEGER DEFAULT 4", false)!=null);
+		assertTrue("added to key", live("TEXT", true, null, false).difference("CODE TEXT NOT NULL", true)!=null);
+	}
+
+	public void testPrimaryKeyColumns()
+	{
+		assertTrue("no constraint", SchemaMigrator.primaryKeyColumns("CREATE TABLE T (_id INTEGER PRIMARY KEY,NAME TEXT)").isEmpty());
+		HashSet<String> key=SchemaMigrator.primaryKeyColumns("CREATE TABLE T (A TEXT,b INTEGER,PRIMARY KEY (A, b)) WITHOUT ROWID");
+		assertEquals("size", 2, key.size());
+		assertTrue("A", key.contains("A"));
+		assertTrue("B", key.contains("B"));
+	}
+
+	public void testNames()
+	{
+		assertEquals("column", "COUNT", SchemaMigrator.columnName(" count INTEGER NOT NULL"));
+		assertEquals("index", "SAMPLE_AGE_IDX", SchemaMigrator.indexName("CREATE INDEX IF NOT EXISTS sample_age_idx ON SAMPLE (AGE)"));
+	}
+}
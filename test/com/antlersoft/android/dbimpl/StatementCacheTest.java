@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import com.antlersoft.util.TestCase;
+
+/**
+ * @author Michael A. MacDonald
+ *
+ */
+public class StatementCacheTest extends TestCase {
+	static final String[] COLUMNS = { "_id", "NAME", "AGE", "SCORE" };
+
+	public void testPartialUpdateSetsMaskedColumnsInOrder()
+	{
+		StatementCache cache=new StatementCache("INSERT", "UPDATE", "DELETE");
+		assertEquals("sql", "UPDATE PERSON SET NAME=?,SCORE=? WHERE _id = ?",
+				cache.getUpdateSql("PERSON", COLUMNS, (1L << 3) | (1L << 1)));
+		assertEquals("one column", "UPDATE PERSON SET AGE=? WHERE _id = ?",
+				cache.getUpdateSql("PERSON", COLUMNS, 1L << 2));
+	}
+
+	public void testPartialUpdateIsCachedByMask()
+	{
+		StatementCache cache=new StatementCache("INSERT", "UPDATE", "DELETE");
+		String first=cache.getUpdateSql("PERSON", COLUMNS, 6L);
+		assertTrue("same instance for same mask", first==cache.getUpdateSql("PERSON", COLUMNS, 6L));
+		assertTrue("different mask", first!=cache.getUpdateSql("PERSON", COLUMNS, 2L));
+	}
+
+	public void testPartialUpdatesPastLimitAreNotCached()
+	{
+		String[] columns=new String[64];
+		for (int i=0; i<columns.length; i++)
+			columns[i]="C"+i;
+		StatementCache cache=new StatementCache("INSERT", "UPDATE", "DELETE");
+		for (int i=1; i<=StatementCache.MAX_PARTIAL_UPDATES; i++)
+			cache.getUpdateSql("T", columns, (long)i << 1);
+		long extra=1L << 40;
+		String sql=cache.getUpdateSql("T", columns, extra);
+		assertEquals("sql past limit", "UPDATE T SET C40=? WHERE _id = ?", sql);
+		assertTrue("not cached", sql!=cache.getUpdateSql("T", columns, extra));
+		assertTrue("earlier mask still cached", cache.getUpdateSql("T", columns, 2L)==cache.getUpdateSql("T", columns, 2L));
+	}
+
+	public void testUpsertSqlIsOptional()
+	{
+		assertTrue("no upsert", new StatementCache("INSERT", "UPDATE", "DELETE").getUpsertSql()==null);
+		assertEquals("upsert", "UPSERT", new StatementCache("INSERT", "UPDATE", "DELETE", "UPSERT").getUpsertSql());
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import android.database.Cursor;
+
+/**
+ * Cursor over rows of numbers held in memory, implemented with a Proxy so it doesn't depend on
+ * the methods of Cursor in a particular API level.  Only the methods used by the tests are
+ * implemented.
+ * @author Michael A. MacDonald
+ *
+ */
+class TestCursor implements InvocationHandler {
+	private final double[][] rows;
+	private final boolean countKnown;
+	private int position=-1;
+
+	private TestCursor(double[][] rows, boolean countKnown)
+	{
+		this.rows=rows;
+		this.countKnown=countKnown;
+	}
+
+	/**
+	 * @param rows Value of each column of each row
+	 * @param countKnown If false, getCount returns 0 so readers can't size their results from it
+	 */
+	static Cursor create(double[][] rows, boolean countKnown)
+	{
+		return (Cursor)Proxy.newProxyInstance(Cursor.class.getClassLoader(), new Class<?>[] { Cursor.class },
+				new TestCursor(rows, countKnown));
+	}
+
+	public Object invoke(Object proxy, Method method, Object[] args) {
+		String name=method.getName();
+		if (name.equals("getCount"))
+			return Integer.valueOf(countKnown ? rows.length : 0);
+		if (name.equals("moveToFirst"))
+		{
+			position=0;
+			return Boolean.valueOf(rows.length>0);
+		}
+		if (name.equals("moveToNext"))
+		{
+			position++;
+			return Boolean.valueOf(position<rows.length);
+		}
+		if (name.equals("close"))
+			return null;
+		double value=rows[position][((Integer)args[0]).intValue()];
+		if (name.equals("getInt"))
+			return Integer.valueOf((int)value);
+		if (name.equals("getLong"))
+			return Long.valueOf((long)value);
+		if (name.equals("getDouble"))
+			return Double.valueOf(value);
+		if (name.equals("isNull"))
+			return Boolean.FALSE;
+		throw new UnsupportedOperationException(name);
+	}
+}
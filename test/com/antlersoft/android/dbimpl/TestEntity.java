@@ -0,0 +1,34 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+
+/**
+ * Instance of a table with only an _id and a dirty mask, for testing classes that hold
+ * instances without reading or writing them
+ * @author Michael A. MacDonald
+ *
+ */
+class TestEntity extends IdImplementationBase {
+	private long id;
+	long dirty;
+
+	TestEntity(long id)
+	{
+		this.id=id;
+	}
+
+	public long get_Id() { return id; }
+	public void set_Id(long id) { this.id=id; }
+	public long Gen_dirtyMask() { return dirty; }
+	public void Gen_clearDirty() { dirty=0; }
+	public void Gen_restoreDirty(long mask) { dirty=mask; }
+	public void Gen_populate(Cursor cursor, int[] columnIndices) { }
+	public void Gen_populate(ContentValues values) { }
+	public ContentValues Gen_getValues() { throw new UnsupportedOperationException(); }
+	public String Gen_tableName() { return "TEST"; }
+	public int[] Gen_columnIndices(Cursor cursor) { return new int[] { cursor.getColumnIndex("_id") }; }
+}
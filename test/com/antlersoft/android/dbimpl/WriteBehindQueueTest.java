@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.ArrayList;
+
+import android.database.SQLException;
+import net.sqlcipher.database.SQLiteDatabase;
+
+import com.antlersoft.util.TestCase;
+
+/**
+ * Tests of how WriteBehindQueue combines and writes a group; the writes are recorded instead of
+ * being made, so no database is needed
+ * @author Michael A. MacDonald
+ *
+ */
+public class WriteBehindQueueTest extends TestCase {
+	/**
+	 * TestEntity that records each write in a shared log; an insert assigns 100 plus the number
+	 * of writes logged before it as the _id
+	 */
+	static class Recorder extends TestEntity {
+		private final StringBuilder log;
+		private final String name;
+		boolean failInsert;
+
+		Recorder(String name, long id, StringBuilder log)
+		{
+			super(id);
+			this.name=name;
+			this.log=log;
+		}
+
+		public boolean Gen_insert(SQLiteDatabase db) {
+			if (failInsert)
+				return false;
+			set_Id(100+log.toString().split(";", -1).length-1);
+			log.append("insert "+name+"="+get_Id()+";");
+			return true;
+		}
+
+		public int Gen_update(SQLiteDatabase db) {
+			log.append("update "+name+"="+get_Id()+";");
+			return 1;
+		}
+
+		public int Gen_delete(SQLiteDatabase db) {
+			log.append("delete "+name+"="+get_Id()+";");
+			return 1;
+		}
+	}
+
+	private ArrayList<WriteBehindQueue.Write> writes=new ArrayList<WriteBehindQueue.Write>();
+	private StringBuilder log=new StringBuilder();
+
+	private void queue(int kind, IdImplementationBase instance)
+	{
+		writes.add(new WriteBehindQueue.Write(kind, instance));
+	}
+
+	public void testNewInstancesAreNeverCombined()
+	{
+		Recorder a=new Recorder("a", 0, log);
+		Recorder b=new Recorder("b", 0, log);
+		queue(WriteBehindQueue.INSERT, a);
+		queue(WriteBehindQueue.INSERT, b);
+		queue(WriteBehindQueue.UPDATE, a);
+		assertEquals("rows", 3, WriteBehindQueue.write(null, writes));
+		// The update of a is written after its insert assigned the _id, and b is still inserted
+		assertEquals("writes", "insert a=100;insert b=101;update a=100;", log.toString());
+	}
+
+	public void testUpdatesOfSameRowAreCombined()
+	{
+		Recorder first=new Recorder("first", 5, log);
+		Recorder second=new Recorder("second", 5, log);
+		queue(WriteBehindQueue.UPDATE, first);
+		queue(WriteBehindQueue.UPDATE, new Recorder("other", 6, log));
+		queue(WriteBehindQueue.UPDATE, second);
+		assertEquals("rows", 2, WriteBehindQueue.write(null, writes));
+		assertEquals("writes", "update second=5;update other=6;", log.toString());
+	}
+
+	public void testDeleteReplacesUpdate()
+	{
+		queue(WriteBehindQueue.UPDATE, new Recorder("a", 5, log));
+		queue(WriteBehindQueue.DELETE, new Recorder("b", 5, log));
+		queue(WriteBehindQueue.DELETE, new Recorder("c", 6, log));
+		queue(WriteBehindQueue.UPDATE, new Recorder("d", 6, log));
+		assertEquals("rows", 3, WriteBehindQueue.write(null, writes));
+		assertEquals("writes", "delete b=5;delete c=6;update d=6;", log.toString());
+	}
+
+	public void testFailedInsertFailsGroup()
+	{
+		Recorder failing=new Recorder("a", 0, log);
+		failing.failInsert=true;
+		queue(WriteBehindQueue.UPDATE, new Recorder("b", 5, log));
+		queue(WriteBehindQueue.INSERT, failing);
+		try
+		{
+			WriteBehindQueue.write(null, writes);
+			fail("failed insert written");
+		}
+		catch (SQLException sqle)
+		{
+			// expected; the caller rolls back the group
+		}
+	}
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.android.dbimpl;
+
+import java.util.ArrayList;
+
+import com.antlersoft.util.TestCase;
+
+/**
+ * @author Michael A. MacDonald
+ *
+ */
+public class WriteSnapshotTest extends TestCase {
+	public void testRolledBackChunkRestoresIdAndDirtyMask()
+	{
+		TestEntity inserted=new TestEntity(0);
+		inserted.dirty=5;
+		TestEntity updated=new TestEntity(9);
+		updated.dirty=2;
+		ArrayList<TestEntity> chunk=new ArrayList<TestEntity>();
+		chunk.add(inserted);
+		chunk.add(updated);
+		WriteSnapshot snapshot=new WriteSnapshot(chunk);
+		// What the writes do before the transaction fails
+		inserted.set_Id(17);
+		inserted.Gen_clearDirty();
+		updated.Gen_clearDirty();
+		snapshot.restore();
+		assertEquals("inserted id", 0, inserted.get_Id());
+		assertEquals("inserted dirty", 5, inserted.Gen_dirtyMask());
+		assertEquals("updated id", 9, updated.get_Id());
+		assertEquals("updated dirty", 2, updated.Gen_dirtyMask());
+	}
+
+	public void testRepeatedInstanceGetsEarliestValues()
+	{
+		TestEntity entity=new TestEntity(0);
+		entity.dirty=3;
+		ArrayList<TestEntity> writes=new ArrayList<TestEntity>();
+		writes.add(entity);
+		writes.add(entity);
+		WriteSnapshot snapshot=new WriteSnapshot(writes);
+		entity.set_Id(4);
+		entity.Gen_clearDirty();
+		snapshot.restore();
+		assertEquals("id", 0, entity.get_Id());
+		assertEquals("dirty", 3, entity.Gen_dirtyMask());
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2026 Michael A. MacDonald
+ */
+package com.antlersoft.util;
+
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Minimal test base class, so the tests run on a plain JVM without a test library.  Each public
+ * no-argument method whose name starts with test is run on a new instance.  main runs the test
+ * classes named on the command line, exiting with status 1 if any test fails.
+ *
+ * @author Michael A. MacDonald
+ *
+ */
+public abstract class TestCase {
+	/**
+	 * Thrown when an assertion in a test fails
+	 */
+	public static class AssertionFailed extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		public AssertionFailed(String message)
+		{
+			super(message);
+		}
+	}
+
+	/**
+	 * Run all the tests in a class
+	 * @param testClass Subclass of TestCase
+	 * @param out Receives a line for each failure
+	 * @return Number of tests that failed
+	 */
+	public static int run(Class<? extends TestCase> testClass, PrintStream out) throws Exception
+	{
+		int failures=0;
+		for (Method m : testClass.getMethods())
+		{
+			if (! m.getName().startsWith("test") || m.getParameterTypes().length!=0 || Modifier.isStatic(m.getModifiers()))
+				continue;
+			TestCase instance=testClass.newInstance();
+			try
+			{
+				m.invoke(instance);
+			}
+			catch (InvocationTargetException ite)
+			{
+				failures++;
+				out.println("FAILED "+testClass.getSimpleName()+"."+m.getName()+": "+ite.getCause());
+				if (! (ite.getCause() instanceof AssertionFailed))
+					ite.getCause().printStackTrace(out);
+			}
+		}
+		return failures;
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		int failures=0;
+		for (String name : args)
+		{
+			int classFailures=run(Class.forName(name).asSubclass(TestCase.class), System.out);
+			System.out.println(name+(classFailures==0 ? " passed" : " had "+classFailures+" failures"));
+			failures+=classFailures;
+		}
+		if (failures>0)
+			System.exit(1);
+	}
+
+	public static void fail(String message)
+	{
+		throw new AssertionFailed(message);
+	}
+
+	public static void assertTrue(String message, boolean condition)
+	{
+		if (! condition)
+			fail(message);
+	}
+
+	public static void assertEquals(String message, long expected, long actual)
+	{
+		if (expected!=actual)
+			fail(message+": expected "+expected+" but was "+actual);
+	}
+
+	public static void assertEquals(String message, double expected, double actual)
+	{
+		if (Double.compare(expected, actual)!=0)
+			fail(message+": expected "+expected+" but was "+actual);
+	}
+
+	public static void assertEquals(String message, Object expected, Object actual)
+	{
+		if (expected==null ? actual!=null : ! expected.equals(actual))
+			fail(message+": expected <"+expected+"> but was <"+actual+">");
+	}
+
+	/**
+	 * Fail unless text contains part
+	 */
+	public static void assertContains(String message, String part, String text)
+	{
+		if (text.indexOf(part)<0)
+			fail(message+": <"+part+"> not found");
+	}
+}